@@ -1,9 +1,15 @@
 package org.apache.ibatis.r2dbc;
 
+import io.r2dbc.spi.Connection;
+import org.apache.ibatis.r2dbc.mapping.ColumnBatch;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
 
 /**
  * Reactive SQL Session
@@ -26,24 +32,123 @@ public interface ReactiveSqlSession {
 
     <T> Flux<T> select(String statementId, Object parameter, RowBounds rowBounds);
 
+    /**
+     * select the first column as primitive longs, such as id list, without boxing every row
+     *
+     * @param statementId statement id
+     * @param parameter   parameter
+     * @return values, and null is decoded as 0
+     */
+    Mono<long[]> selectLongs(String statementId, Object parameter);
+
+    /**
+     * select the first column as chunks of primitive longs
+     *
+     * @param statementId statement id
+     * @param parameter   parameter
+     * @param chunkSize   values for one chunk, and the last chunk may be smaller
+     * @return chunks of values, and null is decoded as 0
+     */
+    Flux<long[]> selectLongs(String statementId, Object parameter, int chunkSize);
+
+    /**
+     * select rows as column batches for analytics: integral and floating columns are stored in primitive arrays,
+     * so no object is created for every row
+     *
+     * @param statementId statement id
+     * @param parameter   parameter
+     * @param chunkSize   rows for one batch, and the last batch may be smaller
+     * @return column batches
+     */
+    Flux<ColumnBatch> selectColumnar(String statementId, Object parameter, int chunkSize);
+
+    /**
+     * stream all rows with consecutive keyset pages: every page is a separate query with its own connection,
+     * and the next page is fetched while the current page is drained
+     *
+     * @param statementId statement id
+     * @param parameter   parameter
+     * @param keyProperty unique and sortable key property of result, and the column is resolved from result map
+     * @param pageSize    rows for one page
+     * @return rows ordered by key
+     */
+    <T> Flux<T> streamByKeyset(String statementId, Object parameter, String keyProperty, int pageSize);
+
     default Mono<Integer> insert(String statementId) {
         return insert(statementId, null);
     }
 
     Mono<Integer> insert(String statementId, Object parameter);
 
+    /**
+     * batch insert: bind all parameters on one statement and execute them in one round trip
+     *
+     * @param statementId statement id
+     * @param parameters  parameters
+     * @return updated rows for every parameter, and generated keys are populated into parameter
+     */
+    Flux<Integer> batchInsert(String statementId, Iterable<?> parameters);
+
+    /**
+     * streaming batch insert: pull parameters in chunks, execute every chunk as one batch, and keep up to concurrency chunks in flight
+     *
+     * @param statementId statement id
+     * @param parameters  parameters publisher
+     * @param chunkSize   parameters count for one batch
+     * @param concurrency max chunks in flight
+     * @return updated rows for every parameter in upstream order
+     */
+    Flux<Integer> batchInsert(String statementId, Publisher<?> parameters, int chunkSize, int concurrency);
+
     default Mono<Integer> update(String statementId) {
         return update(statementId, null);
     }
 
     Mono<Integer> update(String statementId, Object parameter);
 
+    /**
+     * batch update: bind all parameters on one statement and execute them in one round trip
+     *
+     * @param statementId statement id
+     * @param parameters  parameters
+     * @return updated rows for every parameter
+     */
+    Flux<Integer> batchUpdate(String statementId, Iterable<?> parameters);
+
+    /**
+     * streaming batch update: pull parameters in chunks, execute every chunk as one batch, and keep up to concurrency chunks in flight
+     *
+     * @param statementId statement id
+     * @param parameters  parameters publisher
+     * @param chunkSize   parameters count for one batch
+     * @param concurrency max chunks in flight
+     * @return updated rows for every parameter in upstream order
+     */
+    Flux<Integer> batchUpdate(String statementId, Publisher<?> parameters, int chunkSize, int concurrency);
+
     default Mono<Integer> delete(String statementId) {
         return delete(statementId, null);
     }
 
     Mono<Integer> delete(String statementId, Object parameter);
 
+    /**
+     * execute statements in one transaction: the connection is bound to Reactor Context and shared by all statements in scope,
+     * committed on complete, rolled back on error or cancel. Nested calls join the current transaction.
+     *
+     * @param callback transaction callback
+     * @return result of callback
+     */
+    <T> Flux<T> inTransaction(Function<ReactiveSqlSession, ? extends Publisher<T>> callback);
+
+    /**
+     * connection bound to current transaction by inTransaction
+     *
+     * @param context Reactor Context
+     * @return transaction connection, null if no transaction is bound
+     */
+    Connection getTransactionConnection(ContextView context);
+
     Configuration getConfiguration();
 
     <T> T getMapper(Class<T> clazz);
@@ -0,0 +1,38 @@
+package org.apache.ibatis.r2dbc.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Batch load: collect select-by-key calls within a short window into one batch statement execution,
+ * such as <code>WHERE id IN (...)</code>, and route the rows back to every caller by key property.
+ * Mono method receives the only row for key, and Flux method receives all rows for key.
+ * The batch statement receives the keys as List parameter, which is available as "list" or "collection".
+ * Nested select of association/collection in result map uses the batch statement of the select method too.
+ *
+ * @author linux_china
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BatchLoad {
+
+    /**
+     * batch statement id, and the mapper namespace is used if the id is not qualified
+     */
+    String value();
+
+    /**
+     * property of result to match the key
+     */
+    String keyProperty() default "id";
+
+    /**
+     * max keys for one batch
+     */
+    int maxBatchSize() default 100;
+
+    /**
+     * window in milliseconds to collect keys after the first call of a batch
+     */
+    long windowMillis() default 5;
+}
@@ -0,0 +1,205 @@
+package org.apache.ibatis.r2dbc.binding;
+
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.r2dbc.annotations.BatchLoad;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.reflection.PropertyAccessorFactory;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch loader: collect keys from concurrent calls and execute them with one batch statement
+ *
+ * @author linux_china
+ */
+public class BatchLoader {
+    private final String statementId;
+    private final String keyProperty;
+    private final int maxBatchSize;
+    private final long windowMillis;
+    private final PropertyAccessorFactory propertyAccessorFactory;
+    /**
+     * pending batches keyed by transaction connection, or by sql session if no transaction is bound
+     */
+    private final Map<Object, Batch> pendingBatches = new IdentityHashMap<>();
+
+    public BatchLoader(PropertyAccessorFactory propertyAccessorFactory, String statementId, String keyProperty, int maxBatchSize, long windowMillis) {
+        this.statementId = statementId;
+        this.keyProperty = keyProperty;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMillis = windowMillis;
+        this.propertyAccessorFactory = propertyAccessorFactory;
+    }
+
+    /**
+     * create batch loader for @BatchLoad annotation on mapper method
+     *
+     * @param mapperInterface mapper interface
+     * @param batchLoad       batch load annotation
+     * @param configuration   configuration
+     * @param propertyAccessorFactory property accessor factory to read key property from rows
+     * @return batch loader
+     */
+    public static BatchLoader create(Class<?> mapperInterface, BatchLoad batchLoad, Configuration configuration, PropertyAccessorFactory propertyAccessorFactory) {
+        String statementId = batchLoad.value().contains(".") ? batchLoad.value() : mapperInterface.getName() + "." + batchLoad.value();
+        if (!configuration.hasStatement(statementId)) {
+            throw new BindingException("Invalid batch statement (not found): " + statementId);
+        }
+        return new BatchLoader(propertyAccessorFactory, statementId, batchLoad.keyProperty(), batchLoad.maxBatchSize(), batchLoad.windowMillis());
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    /**
+     * load the only row for key
+     *
+     * @param sqlSession sql session
+     * @param key        key
+     * @return row, empty if not found, and TooManyResultsException for more rows
+     */
+    public <T> Mono<T> load(ReactiveSqlSession sqlSession, Object key) {
+        return enqueue(sqlSession, key, false);
+    }
+
+    /**
+     * load all rows for key
+     *
+     * @param sqlSession sql session
+     * @param key        key
+     * @return rows, empty list if not found
+     */
+    public <T> Mono<List<T>> loadMany(ReactiveSqlSession sqlSession, Object key) {
+        return enqueue(sqlSession, key, true);
+    }
+
+    private <T> Mono<T> enqueue(ReactiveSqlSession sqlSession, Object key, boolean many) {
+        return Mono.create(sink -> {
+            // statements in transaction must run on the transaction connection, so batch them per connection
+            ContextView context = sink.currentContext();
+            Object transactionConnection = sqlSession.getTransactionConnection(context);
+            Object batchKey = transactionConnection != null ? transactionConnection : sqlSession;
+            Batch fullBatch = null;
+            synchronized (pendingBatches) {
+                Batch batch = pendingBatches.get(batchKey);
+                if (batch == null) {
+                    batch = new Batch(sqlSession, transactionConnection != null ? context : null);
+                    pendingBatches.put(batchKey, batch);
+                    Batch scheduledBatch = batch;
+                    Schedulers.parallel().schedule(() -> flush(batchKey, scheduledBatch), windowMillis, TimeUnit.MILLISECONDS);
+                }
+                batch.add(key, new Waiter(sink, many));
+                if (batch.size() >= maxBatchSize) {
+                    pendingBatches.remove(batchKey);
+                    fullBatch = batch;
+                }
+            }
+            if (fullBatch != null) {
+                dispatch(fullBatch);
+            }
+        });
+    }
+
+    private void flush(Object batchKey, Batch batch) {
+        synchronized (pendingBatches) {
+            if (!pendingBatches.remove(batchKey, batch)) {
+                // already dispatched because of max batch size
+                return;
+            }
+        }
+        dispatch(batch);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void dispatch(Batch batch) {
+        Mono<List<Object>> rowsLoaded = Mono.defer(() -> batch.sqlSession.select(statementId, ParamNameResolver.wrapToMapIfCollection(batch.keys, null)).collectList());
+        if (batch.context != null) {
+            rowsLoaded = rowsLoaded.contextWrite(batch.context);
+        }
+        rowsLoaded.subscribe(rows -> {
+            Map<Object, List<Object>> rowsByKey = new HashMap<>();
+            for (Object row : rows) {
+                Object rowKey = propertyAccessorFactory.getGetter(row.getClass(), keyProperty).get(row);
+                rowsByKey.computeIfAbsent(normalizeKey(rowKey), k -> new ArrayList<>()).add(row);
+            }
+            batch.waiters.forEach((key, waiters) -> {
+                List<Object> keyRows = rowsByKey.getOrDefault(key, Collections.emptyList());
+                for (Waiter waiter : waiters) {
+                    MonoSink sink = waiter.sink;
+                    if (waiter.many) {
+                        sink.success(keyRows);
+                    } else if (keyRows.size() > 1) {
+                        sink.error(new TooManyResultsException("Expected one result (or null) to be returned by " + statementId + " for key " + key + ", but found many"));
+                    } else {
+                        sink.success(keyRows.isEmpty() ? null : keyRows.get(0));
+                    }
+                }
+            });
+        }, error -> batch.waiters.values().forEach(waiters -> waiters.forEach(waiter -> waiter.sink.error(error))));
+    }
+
+    /**
+     * normalize integral keys to Long, so that Integer argument matches Long/BigInteger/BigDecimal id column
+     *
+     * @param key key
+     * @return normalized key
+     */
+    static Object normalizeKey(Object key) {
+        if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        } else if (key instanceof BigInteger && ((BigInteger) key).bitLength() < 64) {
+            return ((BigInteger) key).longValue();
+        } else if (key instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) key).longValueExact();
+            } catch (ArithmeticException ignore) {
+                // fractional or out of long range
+            }
+        }
+        return key;
+    }
+
+    private static class Batch {
+        private final ReactiveSqlSession sqlSession;
+        private final ContextView context;
+        private final List<Object> keys = new ArrayList<>();
+        private final Map<Object, List<Waiter>> waiters = new LinkedHashMap<>();
+
+        Batch(ReactiveSqlSession sqlSession, ContextView context) {
+            this.sqlSession = sqlSession;
+            this.context = context;
+        }
+
+        void add(Object key, Waiter waiter) {
+            waiters.computeIfAbsent(normalizeKey(key), k -> {
+                keys.add(key);
+                return new ArrayList<>();
+            }).add(waiter);
+        }
+
+        int size() {
+            return waiters.size();
+        }
+    }
+
+    private static class Waiter {
+        private final MonoSink<?> sink;
+        private final boolean many;
+
+        Waiter(MonoSink<?> sink, boolean many) {
+            this.sink = sink;
+            this.many = many;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.annotations.BatchLoad;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.reflection.TypeParameterResolver;
 import org.apache.ibatis.session.Configuration;
@@ -21,6 +22,7 @@ import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * @author Clinton Begin
@@ -32,10 +34,12 @@ import java.util.Map;
 public class MapperMethod {
     private final SqlCommand command;
     private final MethodSignature method;
+    private final BatchLoader batchLoader;
 
-    public MapperMethod(Class<?> mapperInterface, Method method, Configuration config) {
+    public MapperMethod(Class<?> mapperInterface, Method method, Configuration config, ReactiveMapperRegistry mapperRegistry) {
         this.command = new SqlCommand(config, mapperInterface, method);
         this.method = new MethodSignature(config, mapperInterface, method);
+        this.batchLoader = batchLoader(method, mapperRegistry);
     }
 
     public Object execute(ReactiveSqlSession sqlSession, Object[] args) {
@@ -60,8 +64,12 @@ public class MapperMethod {
                 if (method.returnsVoid()) {
                     executeWithVoidHandler(sqlSession, args);
                     result = null;
+                } else if (batchLoader != null && method.returnsMany()) {
+                    return batchLoader.loadMany(sqlSession, args[0]).flatMapIterable(Function.identity());
                 } else if (method.returnsMany()) {
                     result = executeForMany(sqlSession, args);
+                } else if (batchLoader != null) {
+                    return batchLoader.load(sqlSession, args[0]);
                 } else {
                     Object param = method.convertArgsToSqlCommandParam(args);
                     return sqlSession.selectOne(command.getName(), param);
@@ -77,6 +85,22 @@ public class MapperMethod {
         return result;
     }
 
+    private BatchLoader batchLoader(Method method, ReactiveMapperRegistry mapperRegistry) {
+        BatchLoad batchLoad = method.getAnnotation(BatchLoad.class);
+        if (batchLoad == null) {
+            return null;
+        }
+        if (command.getType() != SqlCommandType.SELECT || method.getParameterCount() != 1) {
+            throw new BindingException("@BatchLoad is only supported by select method with one key parameter: " + command.getName());
+        }
+        // shared with nested selects so that direct calls and nested selects join the same batches
+        BatchLoader batchLoader = mapperRegistry.getBatchLoader(command.getName());
+        if (batchLoader == null) {
+            throw new BindingException("@BatchLoad method is not registered in MyBatis configuration: " + command.getName());
+        }
+        return batchLoader;
+    }
+
     private void executeWithVoidHandler(ReactiveSqlSession sqlSession, Object[] args) {
         MappedStatement ms = sqlSession.getConfiguration().getMappedStatement(command.getName());
         if (!StatementType.CALLABLE.equals(ms.getStatementType())
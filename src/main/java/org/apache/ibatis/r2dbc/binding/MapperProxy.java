@@ -1,5 +1,6 @@
 package org.apache.ibatis.r2dbc.binding;
 
+import org.apache.ibatis.binding.BindingException;
 import org.apache.ibatis.r2dbc.ReactiveSqlSession;
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -11,6 +12,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Map;
 
 /**
@@ -28,11 +30,13 @@ public class MapperProxy<T> implements InvocationHandler, Serializable {
     private final ReactiveSqlSession sqlSession;
     private final Class<T> mapperInterface;
     private final Map<Method, MapperMethodInvoker> methodCache;
+    private final ReactiveMapperRegistry mapperRegistry;
 
-    public MapperProxy(ReactiveSqlSession sqlSession, Class<T> mapperInterface, Map<Method, MapperMethodInvoker> methodCache) {
+    public MapperProxy(ReactiveSqlSession sqlSession, Class<T> mapperInterface, Map<Method, MapperMethodInvoker> methodCache, ReactiveMapperRegistry mapperRegistry) {
         this.sqlSession = sqlSession;
         this.mapperInterface = mapperInterface;
         this.methodCache = methodCache;
+        this.mapperRegistry = mapperRegistry;
     }
 
     static {
@@ -74,6 +78,20 @@ public class MapperProxy<T> implements InvocationHandler, Serializable {
         }
     }
 
+    void warmUp() {
+        for (Method method : mapperInterface.getMethods()) {
+            if (!Object.class.equals(method.getDeclaringClass()) && !Modifier.isStatic(method.getModifiers())) {
+                try {
+                    cachedInvoker(method);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new BindingException("Failed to warm up mapper method: " + method, t);
+                }
+            }
+        }
+    }
+
     private MapperMethodInvoker cachedInvoker(Method method) throws Throwable {
         try {
             return methodCache.computeIfAbsent(method, m -> {
@@ -89,7 +107,7 @@ public class MapperProxy<T> implements InvocationHandler, Serializable {
                         throw new RuntimeException(e);
                     }
                 } else {
-                    return new PlainMethodInvoker(new MapperMethod(mapperInterface, method, sqlSession.getConfiguration()));
+                    return new PlainMethodInvoker(new MapperMethod(mapperInterface, method, sqlSession.getConfiguration(), mapperRegistry));
                 }
             });
         } catch (RuntimeException re) {
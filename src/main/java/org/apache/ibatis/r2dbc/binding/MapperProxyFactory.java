@@ -14,10 +14,12 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MapperProxyFactory<T> {
 
     private final Class<T> mapperInterface;
+    private final ReactiveMapperRegistry mapperRegistry;
     private final Map<Method, MapperProxy.MapperMethodInvoker> methodCache = new ConcurrentHashMap<>();
 
-    public MapperProxyFactory(Class<T> mapperInterface) {
+    public MapperProxyFactory(Class<T> mapperInterface, ReactiveMapperRegistry mapperRegistry) {
         this.mapperInterface = mapperInterface;
+        this.mapperRegistry = mapperRegistry;
     }
 
     public Class<T> getMapperInterface() {
@@ -34,7 +36,16 @@ public class MapperProxyFactory<T> {
     }
 
     public T newInstance(ReactiveSqlSession sqlSession) {
-        final MapperProxy<T> mapperProxy = new MapperProxy<T>(sqlSession, mapperInterface, methodCache);
+        final MapperProxy<T> mapperProxy = new MapperProxy<T>(sqlSession, mapperInterface, methodCache, mapperRegistry);
         return newInstance(mapperProxy);
     }
+
+    /**
+     * build method invokers for all mapper methods to take reflection and annotation parsing off the request path
+     *
+     * @param sqlSession reactive sql session
+     */
+    public void warmUp(ReactiveSqlSession sqlSession) {
+        new MapperProxy<T>(sqlSession, mapperInterface, methodCache, mapperRegistry).warmUp();
+    }
 }
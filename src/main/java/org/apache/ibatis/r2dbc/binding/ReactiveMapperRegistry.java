@@ -0,0 +1,90 @@
+package org.apache.ibatis.r2dbc.binding;
+
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.annotations.BatchLoad;
+import org.apache.ibatis.r2dbc.reflection.PropertyAccessorFactory;
+import org.apache.ibatis.session.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reactive mapper registry: mapper proxy factories and their method caches are shared by all sessions
+ *
+ * @author linux_china
+ */
+public class ReactiveMapperRegistry {
+    private final Configuration configuration;
+    private final PropertyAccessorFactory propertyAccessorFactory;
+    private final Map<Class<?>, MapperProxyFactory<?>> knownMappers = new ConcurrentHashMap<>();
+    private final Map<String, Optional<BatchLoader>> batchLoaders = new ConcurrentHashMap<>();
+
+    public ReactiveMapperRegistry(Configuration configuration) {
+        this.configuration = configuration;
+        this.propertyAccessorFactory = new PropertyAccessorFactory(configuration);
+    }
+
+    public PropertyAccessorFactory getPropertyAccessorFactory() {
+        return propertyAccessorFactory;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> MapperProxyFactory<T> getMapperProxyFactory(Class<T> type) {
+        return (MapperProxyFactory<T>) knownMappers.computeIfAbsent(type, mapperInterface -> new MapperProxyFactory<>(mapperInterface, this));
+    }
+
+    public <T> T getMapper(Class<T> type, ReactiveSqlSession sqlSession) {
+        return getMapperProxyFactory(type).newInstance(sqlSession);
+    }
+
+    public boolean hasMapper(Class<?> type) {
+        return knownMappers.containsKey(type);
+    }
+
+    public Collection<Class<?>> getMappers() {
+        return knownMappers.keySet();
+    }
+
+    /**
+     * get batch loader for select statement of mapper method annotated with @BatchLoad
+     *
+     * @param statementId statement id
+     * @return batch loader, null if the statement is not batch loaded
+     */
+    public BatchLoader getBatchLoader(String statementId) {
+        return batchLoaders.computeIfAbsent(statementId, this::createBatchLoader).orElse(null);
+    }
+
+    private Optional<BatchLoader> createBatchLoader(String statementId) {
+        int index = statementId.lastIndexOf('.');
+        if (index > 0) {
+            String namespace = statementId.substring(0, index);
+            String methodName = statementId.substring(index + 1);
+            for (Class<?> mapperInterface : configuration.getMapperRegistry().getMappers()) {
+                if (mapperInterface.getName().equals(namespace)) {
+                    for (Method method : mapperInterface.getMethods()) {
+                        BatchLoad batchLoad = method.getAnnotation(BatchLoad.class);
+                        if (batchLoad != null && method.getName().equals(methodName)) {
+                            return Optional.of(BatchLoader.create(mapperInterface, batchLoad, configuration, propertyAccessorFactory));
+                        }
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * build MapperMethod for all mapper interfaces registered in MyBatis configuration
+     *
+     * @param sqlSession reactive sql session
+     */
+    public void warmUp(ReactiveSqlSession sqlSession) {
+        for (Class<?> mapperInterface : configuration.getMapperRegistry().getMappers()) {
+            getMapperProxyFactory(mapperInterface).warmUp(sqlSession);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.apache.ibatis.r2dbc.cache;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.MappedStatement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive statement cache: materialized results are stored in the MyBatis Cache declared by &lt;cache/&gt; of mapper namespace,
+ * so eviction, size, flushInterval and readOnly settings are honoured. Concurrent identical misses share one database call.
+ *
+ * @author linux_china
+ */
+public class ReactiveStatementCache {
+    private final Map<CacheKey, Mono<List<Object>>> pendingLoads = new ConcurrentHashMap<>();
+
+    /**
+     * query rows from cache, or load them and put them into cache
+     *
+     * @param mappedStatement mapped statement with cache
+     * @param cacheKey        cache key
+     * @param loader          rows loader
+     * @return rows
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> query(MappedStatement mappedStatement, CacheKey cacheKey, Flux<T> loader) {
+        Cache cache = mappedStatement.getCache();
+        return Flux.defer(() -> {
+            List<T> cachedRows = (List<T>) cache.getObject(cacheKey);
+            if (cachedRows != null) {
+                return Flux.fromIterable(cachedRows);
+            }
+            Mono<List<Object>> pendingLoad = pendingLoads.computeIfAbsent(cacheKey, key -> {
+                AtomicReference<Mono<List<Object>>> holder = new AtomicReference<>();
+                holder.set(((Flux<Object>) loader).collectList()
+                        .doOnNext(rows -> cache.putObject(key, rows))
+                        .doFinally(signalType -> pendingLoads.remove(key, holder.get()))
+                        .cache());
+                return holder.get();
+            });
+            return pendingLoad.flatMapIterable(rows -> (List<T>) rows);
+        });
+    }
+
+    /**
+     * flush cache of statement's namespace
+     *
+     * @param mappedStatement mapped statement
+     */
+    public void flush(MappedStatement mappedStatement) {
+        Cache cache = mappedStatement.getCache();
+        if (cache != null && mappedStatement.isFlushCacheRequired()) {
+            cache.clear();
+        }
+    }
+}
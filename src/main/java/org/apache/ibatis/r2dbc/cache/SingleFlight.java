@@ -0,0 +1,34 @@
+package org.apache.ibatis.r2dbc.cache;
+
+import org.apache.ibatis.cache.CacheKey;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single flight: concurrent subscribers with the same key share one in-flight execution,
+ * and the entry is dropped as soon as the execution terminates. Nothing is cached after completion.
+ *
+ * @author linux_china
+ */
+public class SingleFlight {
+    private final Map<CacheKey, Flux<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> execute(CacheKey key, Flux<T> source) {
+        return Flux.defer(() -> (Flux<T>) inFlight.computeIfAbsent(key, k -> {
+            AtomicReference<Flux<Object>> holder = new AtomicReference<>();
+            holder.set(((Flux<Object>) source)
+                    .doFinally(signalType -> inFlight.remove(k, holder.get()))
+                    .replay()
+                    .refCount());
+            return holder.get();
+        }));
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,119 @@
+package org.apache.ibatis.r2dbc.dialect;
+
+import java.util.Locale;
+
+/**
+ * SQL dialect: rewrite SQL for database side paging and native bind markers
+ *
+ * @author linux_china
+ */
+public interface Dialect {
+
+    String getName();
+
+    /**
+     * append limit and offset to SQL
+     *
+     * @param sql    SQL
+     * @param offset rows to skip
+     * @param limit  max rows, RowBounds.NO_ROW_LIMIT for no limit
+     * @return paged SQL
+     */
+    String getLimitSql(String sql, long offset, int limit);
+
+    /**
+     * wrap SQL as keyset page: rows after last key and ordered by key column.
+     * The last key placeholder is appended after the parameters of SQL.
+     *
+     * @param sql        SQL
+     * @param keyColumn  unique and sortable key column
+     * @param hasLastKey true to add last key condition, false for the first page
+     * @param limit      page size
+     * @return keyset page SQL
+     */
+    default String getKeysetSql(String sql, String keyColumn, boolean hasLastKey, int limit) {
+        String pageSql = "SELECT * FROM (" + trimSql(sql) + ") keyset_page"
+                + (hasLastKey ? " WHERE " + keyColumn + " > ?" : "")
+                + " ORDER BY " + keyColumn;
+        return getLimitSql(pageSql, 0, limit);
+    }
+
+    /**
+     * native bind marker of R2DBC driver
+     *
+     * @param index parameter index, start from 0
+     * @return bind marker, and default is ?
+     */
+    default String getBindMarker(int index) {
+        return "?";
+    }
+
+    /**
+     * translate JDBC style ? placeholders to native bind markers, and placeholders in string literals,
+     * quoted identifiers and comments are kept
+     *
+     * @param sql SQL with ? placeholders
+     * @return SQL with native bind markers
+     */
+    default String translateSql(String sql) {
+        if ("?".equals(getBindMarker(0)) || sql.indexOf('?') < 0) {
+            return sql;
+        }
+        StringBuilder builder = new StringBuilder(sql.length() + 16);
+        int index = 0;
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            int end = i;
+            if (c == '\'' || c == '"' || c == '`') {
+                end = sql.indexOf(c, i + 1);
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                end = sql.indexOf('\n', i + 2);
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? end : end + 1;
+            } else if (c == '?') {
+                builder.append(getBindMarker(index++));
+                continue;
+            }
+            end = end < 0 ? length - 1 : end;
+            builder.append(sql, i, end + 1);
+            i = end;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * find dialect by database name, such as ConnectionFactoryMetadata.getName()
+     *
+     * @param databaseName database name
+     * @return dialect, null if database not supported
+     */
+    static Dialect forDatabase(String databaseName) {
+        if (databaseName == null) {
+            return null;
+        }
+        String name = databaseName.toLowerCase(Locale.ROOT);
+        if (name.contains("mysql") || name.contains("mariadb")) {
+            return new MySqlDialect(databaseName);
+        } else if (name.contains("postgres")) {
+            return new PostgreSqlDialect(databaseName);
+        } else if (name.contains("h2")) {
+            return new LimitOffsetDialect(databaseName);
+        } else if (name.contains("sql server") || name.contains("mssql")) {
+            return new SqlServerDialect(databaseName);
+        }
+        return null;
+    }
+
+    /**
+     * remove trailing whitespace and semicolon
+     */
+    static String trimSql(String sql) {
+        int end = sql.length();
+        while (end > 0 && (Character.isWhitespace(sql.charAt(end - 1)) || sql.charAt(end - 1) == ';')) {
+            end--;
+        }
+        return sql.substring(0, end);
+    }
+}
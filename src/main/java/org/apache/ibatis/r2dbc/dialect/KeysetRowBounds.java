@@ -0,0 +1,33 @@
+package org.apache.ibatis.r2dbc.dialect;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Keyset row bounds: seek rows after the last key instead of skipping offset rows,
+ * and the database can start the page from the key index for deep pages.
+ *
+ * @author linux_china
+ */
+public class KeysetRowBounds extends RowBounds {
+    private final String keyColumn;
+    private final Object lastKey;
+
+    /**
+     * @param keyColumn unique and sortable column in select list
+     * @param lastKey   key of last row in previous page, null for first page
+     * @param limit     page size
+     */
+    public KeysetRowBounds(String keyColumn, Object lastKey, int limit) {
+        super(RowBounds.NO_ROW_OFFSET, limit);
+        this.keyColumn = keyColumn;
+        this.lastKey = lastKey;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public Object getLastKey() {
+        return lastKey;
+    }
+}
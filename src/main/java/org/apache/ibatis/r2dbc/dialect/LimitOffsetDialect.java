@@ -0,0 +1,33 @@
+package org.apache.ibatis.r2dbc.dialect;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * LIMIT count OFFSET offset dialect for PostgreSQL and H2
+ *
+ * @author linux_china
+ */
+public class LimitOffsetDialect implements Dialect {
+    private final String name;
+
+    public LimitOffsetDialect(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getLimitSql(String sql, long offset, int limit) {
+        StringBuilder builder = new StringBuilder(Dialect.trimSql(sql));
+        if (limit != RowBounds.NO_ROW_LIMIT) {
+            builder.append(" LIMIT ").append(limit);
+        }
+        if (offset > 0) {
+            builder.append(" OFFSET ").append(offset);
+        }
+        return builder.toString();
+    }
+}
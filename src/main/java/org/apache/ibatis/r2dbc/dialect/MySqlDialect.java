@@ -0,0 +1,34 @@
+package org.apache.ibatis.r2dbc.dialect;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * MySQL and MariaDB dialect: LIMIT offset, count
+ *
+ * @author linux_china
+ */
+public class MySqlDialect implements Dialect {
+    /**
+     * max row count from MySQL manual, used when only offset is present
+     */
+    private static final String MAX_ROWS = "18446744073709551615";
+    private final String name;
+
+    public MySqlDialect(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getLimitSql(String sql, long offset, int limit) {
+        String rowCount = limit == RowBounds.NO_ROW_LIMIT ? MAX_ROWS : String.valueOf(limit);
+        if (offset > 0) {
+            return Dialect.trimSql(sql) + " LIMIT " + offset + ", " + rowCount;
+        }
+        return Dialect.trimSql(sql) + " LIMIT " + rowCount;
+    }
+}
@@ -0,0 +1,18 @@
+package org.apache.ibatis.r2dbc.dialect;
+
+/**
+ * PostgreSQL dialect: LIMIT count OFFSET offset, and $1, $2 bind markers
+ *
+ * @author linux_china
+ */
+public class PostgreSqlDialect extends LimitOffsetDialect {
+
+    public PostgreSqlDialect(String name) {
+        super(name);
+    }
+
+    @Override
+    public String getBindMarker(int index) {
+        return "$" + (index + 1);
+    }
+}
@@ -0,0 +1,37 @@
+package org.apache.ibatis.r2dbc.dialect;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Microsoft SQL Server dialect: OFFSET offset ROWS FETCH NEXT count ROWS ONLY, which requires ORDER BY in SQL,
+ * and @P0, @P1 bind markers
+ *
+ * @author linux_china
+ */
+public class SqlServerDialect implements Dialect {
+    private final String name;
+
+    public SqlServerDialect(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getLimitSql(String sql, long offset, int limit) {
+        StringBuilder builder = new StringBuilder(Dialect.trimSql(sql));
+        builder.append(" OFFSET ").append(offset).append(" ROWS");
+        if (limit != RowBounds.NO_ROW_LIMIT) {
+            builder.append(" FETCH NEXT ").append(limit).append(" ROWS ONLY");
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String getBindMarker(int index) {
+        return "@P" + index;
+    }
+}
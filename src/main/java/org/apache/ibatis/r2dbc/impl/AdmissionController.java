@@ -0,0 +1,136 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission controller: semaphore with weighted permits and FIFO waiting queue to keep statement fan-out under the pool size.
+ * Waiters are rejected with R2dbcTransientResourceException when the queue is full or the wait exceeds max wait time.
+ *
+ * @author linux_china
+ */
+public class AdmissionController {
+    private final int maxPermits;
+    private final Duration maxWaitTime;
+    private final int maxQueueSize;
+    private final Queue<Permit> waiters = new ArrayDeque<>();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private int availablePermits;
+
+    public AdmissionController(int maxPermits, Duration maxWaitTime, int maxQueueSize) {
+        this.maxPermits = maxPermits;
+        this.maxWaitTime = maxWaitTime;
+        this.maxQueueSize = maxQueueSize;
+        this.availablePermits = maxPermits;
+    }
+
+    /**
+     * subscribe source after permits acquired, and release permits when source terminates or is cancelled
+     *
+     * @param weight permits for the source, at most max permits
+     * @param source source flux
+     * @return admitted flux
+     */
+    public <T> Flux<T> admit(int weight, Flux<T> source) {
+        return Flux.defer(() -> {
+            Permit permit = new Permit(Math.max(1, Math.min(weight, maxPermits)));
+            return acquire(permit)
+                    .thenMany(source)
+                    .doFinally(signalType -> release(permit));
+        });
+    }
+
+    public <T> Mono<T> admit(int weight, Mono<T> source) {
+        return admit(weight, source.flux()).singleOrEmpty();
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    public synchronized int getAvailablePermits() {
+        return availablePermits;
+    }
+
+    public synchronized int getQueueSize() {
+        return waiters.size();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private Mono<Void> acquire(Permit permit) {
+        Mono<Void> acquired = Mono.create(sink -> {
+            boolean granted = false;
+            boolean rejected = false;
+            synchronized (this) {
+                if (waiters.isEmpty() && availablePermits >= permit.weight) {
+                    availablePermits -= permit.weight;
+                    permit.state = Permit.GRANTED;
+                    granted = true;
+                } else if (waiters.size() >= maxQueueSize) {
+                    permit.state = Permit.RELEASED;
+                    rejected = true;
+                } else {
+                    permit.sink = sink;
+                    waiters.add(permit);
+                }
+            }
+            if (granted) {
+                sink.success();
+            } else if (rejected) {
+                rejectedCount.incrementAndGet();
+                sink.error(new R2dbcTransientResourceException("Admission queue is full: " + maxQueueSize + " statements are waiting"));
+            }
+        });
+        return acquired.timeout(maxWaitTime, Mono.defer(() -> {
+            rejectedCount.incrementAndGet();
+            return Mono.error(new R2dbcTransientResourceException("Admission wait exceeded " + maxWaitTime.toMillis() + "ms"));
+        }));
+    }
+
+    private void release(Permit permit) {
+        List<Permit> granted = new ArrayList<>();
+        synchronized (this) {
+            if (permit.state == Permit.WAITING) {
+                waiters.remove(permit);
+            } else if (permit.state == Permit.GRANTED) {
+                availablePermits += permit.weight;
+                Permit head;
+                while ((head = waiters.peek()) != null && head.weight <= availablePermits) {
+                    waiters.poll();
+                    availablePermits -= head.weight;
+                    head.state = Permit.GRANTED;
+                    granted.add(head);
+                }
+            }
+            permit.state = Permit.RELEASED;
+        }
+        for (Permit grantedPermit : granted) {
+            grantedPermit.sink.success();
+        }
+    }
+
+    private static class Permit {
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int RELEASED = 2;
+        final int weight;
+        int state = WAITING;
+        MonoSink<Void> sink;
+
+        Permit(int weight) {
+            this.weight = weight;
+        }
+    }
+}
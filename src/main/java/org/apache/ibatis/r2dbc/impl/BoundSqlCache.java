@@ -0,0 +1,114 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicContext;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.session.Configuration;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BoundSql cache for dynamic SQL: the SQL node tree is still applied on every call, and the parsed SQL with parameter mappings
+ * is cached by the generated SQL text and the types of bindings, so #{} placeholders are parsed once for every branch combination
+ *
+ * @author linux_china
+ */
+class BoundSqlCache {
+    private final Configuration configuration;
+    private final SqlSourceBuilder sqlSourceParser;
+    private final int maxSize;
+    private final Map<MappedStatement, Optional<SqlNode>> rootSqlNodes = new ConcurrentHashMap<>();
+    private final Map<MappedStatement, Map<ParsedSqlKey, SqlSource>> parsedSqlSources = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuration configuration
+     * @param maxSize       max parsed SQL for one statement, and 0 to disable cache
+     */
+    BoundSqlCache(Configuration configuration, int maxSize) {
+        this.configuration = configuration;
+        this.sqlSourceParser = new SqlSourceBuilder(configuration);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * get BoundSql, same as MappedStatement.getBoundSql()
+     */
+    BoundSql getBoundSql(MappedStatement mappedStatement, Object parameter) {
+        if (maxSize <= 0 || !(mappedStatement.getSqlSource() instanceof DynamicSqlSource)) {
+            return mappedStatement.getBoundSql(parameter);
+        }
+        Optional<SqlNode> rootSqlNode = rootSqlNodes.computeIfAbsent(mappedStatement, ms -> rootSqlNode((DynamicSqlSource) ms.getSqlSource()));
+        if (!rootSqlNode.isPresent()) {
+            return mappedStatement.getBoundSql(parameter);
+        }
+        DynamicContext context = new DynamicContext(configuration, parameter);
+        rootSqlNode.get().apply(context);
+        Class<?> parameterType = parameter == null ? Object.class : parameter.getClass();
+        Map<String, Object> bindings = context.getBindings();
+        Map<String, Class<?>> bindingTypes = new HashMap<>();
+        for (Map.Entry<String, Object> entry : bindings.entrySet()) {
+            bindingTypes.put(entry.getKey(), entry.getValue() == null ? null : entry.getValue().getClass());
+        }
+        String sql = context.getSql();
+        ParsedSqlKey key = new ParsedSqlKey(sql, parameterType, bindingTypes);
+        Map<ParsedSqlKey, SqlSource> sqlSources = parsedSqlSources.computeIfAbsent(mappedStatement, ms -> new ConcurrentHashMap<>());
+        SqlSource sqlSource = sqlSources.get(key);
+        if (sqlSource == null) {
+            sqlSource = sqlSourceParser.parse(sql, parameterType, bindings);
+            if (sqlSources.size() < maxSize) {
+                sqlSources.put(key, sqlSource);
+            }
+        }
+        BoundSql boundSql = sqlSource.getBoundSql(parameter);
+        bindings.forEach(boundSql::setAdditionalParameter);
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        if (parameterMappings == null || parameterMappings.isEmpty()) {
+            boundSql = new BoundSql(configuration, boundSql.getSql(), mappedStatement.getParameterMap().getParameterMappings(), parameter);
+        }
+        return boundSql;
+    }
+
+    private static Optional<SqlNode> rootSqlNode(DynamicSqlSource sqlSource) {
+        try {
+            Field field = DynamicSqlSource.class.getDeclaredField("rootSqlNode");
+            field.setAccessible(true);
+            return Optional.ofNullable((SqlNode) field.get(sqlSource));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private static class ParsedSqlKey {
+        private final String sql;
+        private final Class<?> parameterType;
+        private final Map<String, Class<?>> bindingTypes;
+        private final int hashCode;
+
+        ParsedSqlKey(String sql, Class<?> parameterType, Map<String, Class<?>> bindingTypes) {
+            this.sql = sql;
+            this.parameterType = parameterType;
+            this.bindingTypes = bindingTypes;
+            this.hashCode = Objects.hash(sql, parameterType, bindingTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ParsedSqlKey)) return false;
+            ParsedSqlKey that = (ParsedSqlKey) o;
+            return sql.equals(that.sql) && parameterType.equals(that.parameterType) && bindingTypes.equals(that.bindingTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -1,22 +1,47 @@
 package org.apache.ibatis.r2dbc.impl;
 
 import io.r2dbc.spi.*;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.r2dbc.ReactiveSqlSession;
-import org.apache.ibatis.r2dbc.binding.MapperProxyFactory;
+import org.apache.ibatis.r2dbc.binding.BatchLoader;
+import org.apache.ibatis.r2dbc.binding.ReactiveMapperRegistry;
+import org.apache.ibatis.r2dbc.cache.ReactiveStatementCache;
+import org.apache.ibatis.r2dbc.cache.SingleFlight;
+import org.apache.ibatis.r2dbc.dialect.Dialect;
+import org.apache.ibatis.r2dbc.dialect.KeysetRowBounds;
+import org.apache.ibatis.r2dbc.mapping.ChunkMapper;
+import org.apache.ibatis.r2dbc.mapping.ColumnBatch;
+import org.apache.ibatis.r2dbc.mapping.LongChunkMapper;
+import org.apache.ibatis.r2dbc.mapping.NestedResult;
+import org.apache.ibatis.r2dbc.mapping.RowMapperFactory;
+import org.apache.ibatis.r2dbc.metrics.MetricsRecorder;
+import org.apache.ibatis.r2dbc.reflection.PropertyAccessorFactory;
+import org.apache.ibatis.r2dbc.reflection.PropertyGetter;
 import org.apache.ibatis.r2dbc.type.R2DBCTypeHandler;
 import org.apache.ibatis.r2dbc.type.TypeHandlerRegistry;
-import org.apache.ibatis.reflection.MetaObject;
-import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeException;
 import org.apache.ibatis.type.TypeHandler;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * reactive sql session default implementation
@@ -25,23 +50,60 @@ import java.util.*;
  */
 @SuppressWarnings("unchecked")
 public class DefaultReactiveSqlSession implements ReactiveSqlSession {
-    private final List<Class<?>> NUMBER_TYPES = Arrays.asList(byte.class, short.class, int.class, long.class, float.class, double.class,
-            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+    private static final int MAX_NATIVE_SQL_CACHE_SIZE = 4096;
+    private static final int DEFAULT_LONG_CHUNK_SIZE = 4096;
     private final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
     private final Configuration configuration;
-    private final ObjectFactory objectFactory;
+    private final PropertyAccessorFactory propertyAccessorFactory;
+    private final RowMapperFactory rowMapperFactory;
+    private final ReactiveStatementCache statementCache = new ReactiveStatementCache();
+    private final SingleFlight singleFlight;
     private final ConnectionFactory connectionFactory;
+    private final ReactiveMapperRegistry mapperRegistry;
+    private final Map<Class<?>, Object> mappers = new ConcurrentHashMap<>();
     private final boolean metricsEnabled;
+    private final AdmissionController admissionController;
+    private final Map<String, Integer> statementWeights = new HashMap<>();
+    private final Dialect dialect;
+    private final Map<MappedStatement, Map<Class<?>, ParameterBindingPlan>> bindingPlans = new ConcurrentHashMap<>();
+    private final BoundSqlCache boundSqlCache;
+    private final Map<String, String> nativeSqlCache = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> prepareHints = new HashMap<>();
+    private final SqlStabilityTracker sqlStabilityTracker;
+    private final MetricsRecorder metricsRecorder;
 
     public DefaultReactiveSqlSession(Configuration configuration, ConnectionFactory connectionFactory) {
+        this(configuration, connectionFactory, new ReactiveMapperRegistry(configuration));
+    }
+
+    public DefaultReactiveSqlSession(Configuration configuration, ConnectionFactory connectionFactory, ReactiveMapperRegistry mapperRegistry) {
         this.configuration = configuration;
-        this.objectFactory = this.configuration.getObjectFactory();
+        this.mapperRegistry = mapperRegistry;
         //register r2dbc type handlers
         registerTypeHandlers(configuration);
+        this.propertyAccessorFactory = mapperRegistry.getPropertyAccessorFactory();
+        this.rowMapperFactory = new RowMapperFactory(configuration, typeHandlerRegistry, propertyAccessorFactory);
         //noinspection unchecked
         this.connectionFactory = connectionFactory;
         //metrics enabled
         this.metricsEnabled = Boolean.parseBoolean(configuration.getVariables().getProperty("metrics.enabled", "false"));
+        this.metricsRecorder = MetricsRecorder.forConfiguration(configuration);
+        //single flight for identical in-flight queries
+        this.singleFlight = Boolean.parseBoolean(configuration.getVariables().getProperty("single-flight.enabled", "false")) ? new SingleFlight() : null;
+        //admission control
+        this.admissionController = admissionController(configuration.getVariables());
+        //parsed dynamic SQL cache
+        this.boundSqlCache = new BoundSqlCache(configuration, Integer.parseInt(configuration.getVariables().getProperty("bound-sql.cache-size", "256")));
+        //prepare hints and SQL stability
+        this.sqlStabilityTracker = new SqlStabilityTracker(Integer.parseInt(configuration.getVariables().getProperty("r2dbc.prepare.max-sql-variants", "16")));
+        String preparePrefix = "r2dbc.prepare.";
+        for (String name : configuration.getVariables().stringPropertyNames()) {
+            if (name.startsWith(preparePrefix) && !name.equals("r2dbc.prepare.max-sql-variants")) {
+                prepareHints.put(name.substring(preparePrefix.length()), Boolean.parseBoolean(configuration.getVariables().getProperty(name)));
+            }
+        }
+        //dialect for database side paging
+        this.dialect = Dialect.forDatabase(configuration.getVariables().getProperty("r2dbc.dialect", connectionFactory.getMetadata().getName()));
     }
 
     private void registerTypeHandlers(Configuration configuration) {
@@ -55,19 +117,9 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
 
     @Override
     public <T> Mono<T> selectOne(String statementId, Object parameter) {
-        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
-        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
-        Mono<T> rowSelected = getConnection().flatMap(connection -> {
-            Statement statement = connection.createStatement(boundSql.getSql());
-            if (parameter != null) {
-                fillParams(statement, boundSql, parameter);
-            }
-            ResultMap resultMap = mappedStatement.getResultMaps().get(0);
-            return executeFluxStatement(connection, statement)
-                    .flatMap(result -> result.map((row, rowMetadata) -> (T) convertRowToResult(row, rowMetadata, resultMap)))
-                    .singleOrEmpty()
-                    .onErrorMap(IndexOutOfBoundsException.class,e -> new TooManyResultsException("Expected one result (or null) to be returned by selectOne(), but found many"));
-        });
+        Mono<T> rowSelected = this.<T>selectRows(statementId, parameter)
+                .singleOrEmpty()
+                .onErrorMap(IndexOutOfBoundsException.class, e -> new TooManyResultsException("Expected one result (or null) to be returned by selectOne(), but found many"));
         if (metricsEnabled) {
             return rowSelected.name(statementId).metrics();
         } else {
@@ -77,17 +129,108 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
 
     @Override
     public <T> Flux<T> select(String statementId, Object parameter) {
+        Flux<T> rowsSelected = selectRows(statementId, parameter);
+        if (metricsEnabled) {
+            return rowsSelected.name(statementId).metrics();
+        } else {
+            return rowsSelected;
+        }
+    }
+
+    private <T> Flux<T> selectRows(String statementId, Object parameter) {
+        return selectRows(statementId, parameter, RowBounds.DEFAULT);
+    }
+
+    private <T> Flux<T> selectRows(String statementId, Object parameter, RowBounds rowBounds) {
         MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
-        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        BoundSql boundSql = boundSqlCache.getBoundSql(mappedStatement, parameter);
+        String sql = boundSql.getSql();
+        Object lastKey = null;
+        if (rowBounds instanceof KeysetRowBounds) {
+            KeysetRowBounds keysetRowBounds = (KeysetRowBounds) rowBounds;
+            lastKey = keysetRowBounds.getLastKey();
+            sql = dialect.getKeysetSql(sql, keysetRowBounds.getKeyColumn(), lastKey != null, keysetRowBounds.getLimit());
+        } else if (isPaged(rowBounds)) {
+            sql = dialect.getLimitSql(sql, rowBounds.getOffset(), rowBounds.getLimit());
+        }
+        final String pageSql = sql;
+        final Object pageLastKey = lastKey;
+        final int fetchSize = fetchSize(mappedStatement);
         Flux<T> rowsSelected = getConnection().flatMapMany(connection -> {
-            Statement statement = connection.createStatement(boundSql.getSql());
+            Statement statement = createStatement(connection, mappedStatement, pageSql);
+            if (fetchSize > 0) {
+                statement.fetchSize(fetchSize);
+            }
             if (parameter != null) {
-                fillParams(statement, boundSql, parameter);
+                fillParams(statement, mappedStatement, boundSql, parameter);
+            }
+            if (pageLastKey != null) {
+                bindValue(statement, boundSql.getParameterMappings().size(), pageLastKey);
             }
             ResultMap resultMap = mappedStatement.getResultMaps().get(0);
+            if (resultMap.hasNestedResultMaps()) {
+                // rows are ordered by parent key, and parent is emitted when the key changes
+                return executeFluxStatement(connection, statement)
+                        .concatMap(result -> mapRows(statementId, result, rowMapperFactory.newNestedMappingFunction(resultMap)), 1)
+                        .windowUntilChanged(NestedResult::getKey)
+                        .concatMap(nestedResults -> nestedResults.reduce(NestedResult::merge))
+                        .map(nestedResult -> (T) nestedResult.getValue());
+            }
+            if (resultMap.hasNestedQueries()) {
+                // parents with pending nested selects, and the selects are subscribed after the parent rows are drained
+                return (Flux<T>) executeFluxStatement(connection, statement)
+                        .concatMap(result -> mapRows(statementId, result, rowMapperFactory.<T>newNestedQueryMappingFunction(resultMap, this::loadNestedQuery)), 1);
+            }
+            // rows are passed through with downstream demand, and no rows are buffered between results
             return executeFluxStatement(connection, statement)
-                    .flatMap(result -> result.map((row, rowMetadata) -> (T) convertRowToResult(row, rowMetadata, resultMap)));
+                    .concatMap(result -> mapRows(statementId, result, rowMapperFactory.<T>newMappingFunction(resultMap)), 1);
         });
+        if (fetchSize > 0) {
+            // request rows from driver in fetch size batches
+            rowsSelected = rowsSelected.limitRate(fetchSize);
+        }
+        rowsSelected = measure(statementId, rowsSelected, row -> 1, false);
+        rowsSelected = admit(statementId, rowsSelected);
+        ResultMap resultMap = mappedStatement.getResultMaps().get(0);
+        if (resultMap.hasNestedQueries() && !resultMap.hasNestedResultMaps()) {
+            // nested selects need their own connection and permit, so they are not started until the parent releases them,
+            // and nested selects of all parents are batched by @BatchLoad of the nested select method
+            rowsSelected = rowsSelected.collectList()
+                    .flatMapIterable(Function.identity())
+                    .flatMapSequential(parent -> (Mono<T>) parent);
+        }
+        boolean useCache = mappedStatement.getCache() != null && mappedStatement.isUseCache();
+        if (mappedStatement.getCache() != null) {
+            statementCache.flush(mappedStatement);
+        }
+        if (useCache || singleFlight != null) {
+            Flux<T> rowsLoader = rowsSelected;
+            CacheKey cacheKey = createCacheKey(mappedStatement, boundSql, pageSql, parameter, rowBounds);
+            Flux<T> sharedRows = singleFlight != null ? singleFlight.execute(cacheKey, rowsLoader) : rowsLoader;
+            // rows read in transaction are not shared
+            return Flux.deferContextual(context -> {
+                if (context.hasKey(connectionFactory)) {
+                    return rowsLoader;
+                }
+                return useCache ? statementCache.query(mappedStatement, cacheKey, sharedRows) : sharedRows;
+            });
+        }
+        return rowsSelected;
+    }
+
+    /**
+     * select with row bounds: limit and offset are pushed into SQL if dialect is available, otherwise rows are skipped on client.
+     * KeysetRowBounds requires dialect.
+     */
+    @Override
+    public <T> Flux<T> select(String statementId, Object parameter, RowBounds rowBounds) {
+        if (!(rowBounds instanceof KeysetRowBounds) && (dialect == null || !isPaged(rowBounds))) {
+            return (Flux<T>) select(statementId, parameter).skip(rowBounds.getOffset()).limitRequest(rowBounds.getLimit());
+        }
+        if (dialect == null) {
+            return Flux.error(new PersistenceException("Keyset paging is not supported for database " + connectionFactory.getMetadata().getName() + ", please set r2dbc.dialect"));
+        }
+        Flux<T> rowsSelected = selectRows(statementId, parameter, rowBounds);
         if (metricsEnabled) {
             return rowsSelected.name(statementId).metrics();
         } else {
@@ -96,39 +239,171 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
     }
 
     @Override
-    public <T> Flux<T> select(String statementId, Object parameter, RowBounds rowBounds) {
-        return (Flux<T>) select(statementId, parameter).skip(rowBounds.getOffset()).limitRequest(rowBounds.getLimit());
+    public Mono<long[]> selectLongs(String statementId, Object parameter) {
+        return selectLongs(statementId, parameter, DEFAULT_LONG_CHUNK_SIZE).collectList().map(chunks -> {
+            int length = 0;
+            for (long[] chunk : chunks) {
+                length += chunk.length;
+            }
+            long[] values = new long[length];
+            int position = 0;
+            for (long[] chunk : chunks) {
+                System.arraycopy(chunk, 0, values, position, chunk.length);
+                position += chunk.length;
+            }
+            return values;
+        });
+    }
+
+    @Override
+    public Flux<long[]> selectLongs(String statementId, Object parameter, int chunkSize) {
+        return selectChunks(statementId, parameter, mappedStatement -> new LongChunkMapper(statementId, chunkSize), chunk -> chunk.length);
+    }
+
+    @Override
+    public Flux<ColumnBatch> selectColumnar(String statementId, Object parameter, int chunkSize) {
+        return selectChunks(statementId, parameter, mappedStatement -> rowMapperFactory.newColumnBatchMapper(mappedStatement.getResultMaps().get(0), chunkSize), ColumnBatch::size);
+    }
+
+    private <T> Flux<T> selectChunks(String statementId, Object parameter, Function<MappedStatement, ChunkMapper<T>> chunkMapperFactory, ToLongFunction<T> rowCounter) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        BoundSql boundSql = boundSqlCache.getBoundSql(mappedStatement, parameter);
+        int fetchSize = fetchSize(mappedStatement);
+        Flux<T> chunks = getConnection().flatMapMany(connection -> {
+            Statement statement = createStatement(connection, mappedStatement, boundSql.getSql());
+            if (fetchSize > 0) {
+                statement.fetchSize(fetchSize);
+            }
+            if (parameter != null) {
+                fillParams(statement, mappedStatement, boundSql, parameter);
+            }
+            ChunkMapper<T> chunkMapper = chunkMapperFactory.apply(mappedStatement);
+            return executeFluxStatement(connection, statement)
+                    .concatMap(result -> mapRows(statementId, result, chunkMapper), 1)
+                    .filter(chunkMapper::isChunk)
+                    .concatWith(Mono.fromSupplier(chunkMapper::remaining));
+        });
+        chunks = measure(statementId, chunks, rowCounter, false);
+        chunks = admit(statementId, chunks);
+        if (metricsEnabled) {
+            return chunks.name(statementId).metrics();
+        } else {
+            return chunks;
+        }
+    }
+
+    @Override
+    public <T> Flux<T> streamByKeyset(String statementId, Object parameter, String keyProperty, int pageSize) {
+        if (dialect == null) {
+            return Flux.error(new PersistenceException("Keyset paging is not supported for database " + connectionFactory.getMetadata().getName() + ", please set r2dbc.dialect"));
+        }
+        String keyColumn = keyColumn(configuration.getMappedStatement(statementId), keyProperty);
+        Function<Object, Mono<List<T>>> pageLoader = lastKey -> this.<T>selectRows(statementId, parameter, new KeysetRowBounds(keyColumn, lastKey, pageSize)).collectList();
+        // expand subscribes to the next page when the current page is emitted, so one page is prefetched
+        Flux<T> rowsSelected = pageLoader.apply(null)
+                .expand(rows -> {
+                    if (rows.size() < pageSize) {
+                        return Mono.empty();
+                    }
+                    Object lastRow = rows.get(rows.size() - 1);
+                    Object lastKey = propertyAccessorFactory.getGetter(lastRow.getClass(), keyProperty).get(lastRow);
+                    if (lastKey == null) {
+                        return Mono.error(new PersistenceException("Key property " + keyProperty + " is null in result of " + statementId));
+                    }
+                    return pageLoader.apply(lastKey);
+                })
+                .flatMapIterable(Function.identity(), 1);
+        if (metricsEnabled) {
+            return rowsSelected.name(statementId).metrics();
+        } else {
+            return rowsSelected;
+        }
+    }
+
+    private Mono<Object> loadNestedQuery(String statementId, Object parameter, boolean many) {
+        BatchLoader batchLoader = mapperRegistry.getBatchLoader(statementId);
+        if (batchLoader != null) {
+            return many ? batchLoader.loadMany(this, parameter).cast(Object.class) : batchLoader.load(this, parameter);
+        }
+        return many ? select(statementId, parameter).collectList().cast(Object.class) : selectOne(statementId, parameter);
+    }
+
+    private String keyColumn(MappedStatement mappedStatement, String keyProperty) {
+        for (ResultMap resultMap : mappedStatement.getResultMaps()) {
+            for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+                if (keyProperty.equals(resultMapping.getProperty()) && resultMapping.getColumn() != null) {
+                    return resultMapping.getColumn();
+                }
+            }
+        }
+        return keyProperty;
+    }
+
+    /**
+     * fetch size from statement's fetchSize attribute, or defaultFetchSize setting
+     */
+    private int fetchSize(MappedStatement mappedStatement) {
+        Integer fetchSize = mappedStatement.getFetchSize();
+        if (fetchSize == null) {
+            fetchSize = configuration.getDefaultFetchSize();
+        }
+        return fetchSize == null ? 0 : fetchSize;
+    }
+
+    private boolean isPaged(RowBounds rowBounds) {
+        return rowBounds != null && (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT);
+    }
+
+    public Dialect getDialect() {
+        return dialect;
     }
 
     @Override
     public Mono<Integer> insert(String statementId, Object parameter) {
         MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
-        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        BoundSql boundSql = boundSqlCache.getBoundSql(mappedStatement, parameter);
         Mono<Integer> rowsUpdated = getConnection().flatMap(connection -> {
-            Statement statement = connection.createStatement(boundSql.getSql());
+            Statement statement = createStatement(connection, mappedStatement, boundSql.getSql());
             final boolean useGeneratedKeys = mappedStatement.getKeyGenerator() != null && mappedStatement.getKeyProperties() != null;
             if (useGeneratedKeys) {
                 statement.returnGeneratedValues(mappedStatement.getKeyProperties());
             }
             if (parameter != null) {
-                fillParams(statement, boundSql, parameter);
+                fillParams(statement, mappedStatement, boundSql, parameter);
             }
             return executeMonoStatement(connection, statement)
-                    .flatMap(result -> {
-                        if (!useGeneratedKeys) {
-                            return Mono.from(result.getRowsUpdated());
-                        } else {
-                            return Mono.from(result.map((row, rowMetadata) -> {
-                                MetaObject parameterMetaObject = configuration.newMetaObject(parameter);
-                                for (String keyProperty : mappedStatement.getKeyProperties()) {
-                                    Object value = row.get(keyProperty, parameterMetaObject.getSetterType(keyProperty));
-                                    parameterMetaObject.setValue(keyProperty, value);
-                                }
-                                return 1;
-                            }));
-                        }
-                    });
+                    .flatMap(result -> insertedRows(result, mappedStatement, parameter, useGeneratedKeys));
         });
+        rowsUpdated = flushCache(mappedStatement, rowsUpdated);
+        rowsUpdated = measure(statementId, rowsUpdated, Integer::longValue, true);
+        rowsUpdated = admit(statementId, rowsUpdated);
+        if (metricsEnabled) {
+            return rowsUpdated.name(statementId).metrics();
+        } else {
+            return rowsUpdated;
+        }
+    }
+
+    @Override
+    public Flux<Integer> batchInsert(String statementId, Iterable<?> parameters) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        final boolean useGeneratedKeys = mappedStatement.getKeyGenerator() != null && mappedStatement.getKeyProperties() != null;
+        Flux<Integer> rowsUpdated = executeBatch(mappedStatement, parameters, useGeneratedKeys);
+        rowsUpdated = measure(statementId, rowsUpdated, Integer::longValue, true);
+        rowsUpdated = admit(statementId, rowsUpdated);
+        if (metricsEnabled) {
+            return rowsUpdated.name(statementId).metrics();
+        } else {
+            return rowsUpdated;
+        }
+    }
+
+    @Override
+    public Flux<Integer> batchUpdate(String statementId, Iterable<?> parameters) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        Flux<Integer> rowsUpdated = executeBatch(mappedStatement, parameters, false);
+        rowsUpdated = measure(statementId, rowsUpdated, Integer::longValue, true);
+        rowsUpdated = admit(statementId, rowsUpdated);
         if (metricsEnabled) {
             return rowsUpdated.name(statementId).metrics();
         } else {
@@ -136,6 +411,30 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
         }
     }
 
+    @Override
+    public Flux<Integer> batchInsert(String statementId, Publisher<?> parameters, int chunkSize, int concurrency) {
+        return executeChunks(parameters, chunkSize, concurrency, chunk -> batchInsert(statementId, chunk));
+    }
+
+    @Override
+    public Flux<Integer> batchUpdate(String statementId, Publisher<?> parameters, int chunkSize, int concurrency) {
+        return executeChunks(parameters, chunkSize, concurrency, chunk -> batchUpdate(statementId, chunk));
+    }
+
+    /**
+     * pull parameters in chunks and keep up to concurrency chunks in flight, update counts keep the order of parameters.
+     * Chunks are executed one by one in transaction because they share the transaction connection.
+     */
+    private Flux<Integer> executeChunks(Publisher<?> parameters, int chunkSize, int concurrency, Function<List<Object>, Flux<Integer>> batch) {
+        return Flux.deferContextual(context -> {
+            Flux<List<Object>> chunks = Flux.<Object>from(parameters).buffer(chunkSize);
+            if (context.hasKey(connectionFactory) || concurrency <= 1) {
+                return chunks.concatMap(batch, 1);
+            }
+            return chunks.flatMapSequential(batch, concurrency, 1);
+        });
+    }
+
     @Override
     public Mono<Integer> delete(String statementId, Object parameter) {
         return update(statementId, parameter);
@@ -144,15 +443,18 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
     @Override
     public Mono<Integer> update(String statementId, Object parameter) {
         MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
-        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        BoundSql boundSql = boundSqlCache.getBoundSql(mappedStatement, parameter);
         Mono<Integer> updatedRows = getConnection().flatMap(connection -> {
-            Statement statement = connection.createStatement(boundSql.getSql());
+            Statement statement = createStatement(connection, mappedStatement, boundSql.getSql());
             if (parameter != null) {
-                fillParams(statement, boundSql, parameter);
+                fillParams(statement, mappedStatement, boundSql, parameter);
             }
             return executeMonoStatement(connection, statement)
                     .flatMap(result -> Mono.from(result.getRowsUpdated()));
         });
+        updatedRows = flushCache(mappedStatement, updatedRows);
+        updatedRows = measure(statementId, updatedRows, Integer::longValue, true);
+        updatedRows = admit(statementId, updatedRows);
         if (metricsEnabled) {
             return updatedRows.name(statementId).metrics();
         } else {
@@ -162,8 +464,7 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
 
     @Override
     public <T> T getMapper(Class<T> clazz) {
-        MapperProxyFactory<T> mapperProxyFactory = new MapperProxyFactory<>(clazz);
-        return mapperProxyFactory.newInstance(this);
+        return (T) mappers.computeIfAbsent(clazz, type -> mapperRegistry.getMapper(type, this));
     }
 
 
@@ -172,24 +473,53 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
         return this.configuration;
     }
 
+    /**
+     * create statement with native SQL, and SQL text of statements with prepare hint is tracked for stability
+     */
+    private Statement createStatement(Connection connection, MappedStatement mappedStatement, String sql) {
+        String nativeSql = nativeSql(sql);
+        if (isPrepareHinted(mappedStatement)) {
+            sqlStabilityTracker.record(mappedStatement.getId(), nativeSql);
+        }
+        return connection.createStatement(nativeSql);
+    }
+
+    /**
+     * prepare hint from r2dbc.prepare.{statementId} property, and default is statementType="PREPARED"
+     */
+    private boolean isPrepareHinted(MappedStatement mappedStatement) {
+        Boolean prepareHint = prepareHints.get(mappedStatement.getId());
+        return prepareHint != null ? prepareHint : mappedStatement.getStatementType() == StatementType.PREPARED;
+    }
+
+    public SqlStabilityTracker getSqlStabilityTracker() {
+        return sqlStabilityTracker;
+    }
+
+    /**
+     * translate placeholders to native bind markers of dialect, and the result is cached for every distinct SQL
+     */
+    private String nativeSql(String sql) {
+        if (dialect == null) {
+            return sql;
+        }
+        String nativeSql = nativeSqlCache.get(sql);
+        if (nativeSql == null) {
+            nativeSql = dialect.translateSql(sql);
+            if (nativeSqlCache.size() < MAX_NATIVE_SQL_CACHE_SIZE) {
+                nativeSqlCache.put(sql, nativeSql);
+            }
+        }
+        return nativeSql;
+    }
+
     public void fillParams(Statement statement, BoundSql boundSql, Object parameter) {
         List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
         if (parameterMappings != null) {
             for (int i = 0; i < parameterMappings.size(); i++) {
                 ParameterMapping parameterMapping = parameterMappings.get(i);
                 if (parameterMapping.getMode() != ParameterMode.OUT) {
-                    Object value;
-                    String propertyName = parameterMapping.getProperty();
-                    if (boundSql.hasAdditionalParameter(propertyName)) {
-                        value = boundSql.getAdditionalParameter(propertyName);
-                    } else if (parameter == null) {
-                        value = null;
-                    } else if (typeHandlerRegistry.hasTypeHandler(parameter.getClass())) {
-                        value = parameter;
-                    } else {
-                        MetaObject metaObject = configuration.newMetaObject(parameter);
-                        value = metaObject.getValue(propertyName);
-                    }
+                    Object value = parameterValue(boundSql, parameterMapping, parameter);
                     TypeHandler<?> typeHandler = parameterMapping.getTypeHandler();
                     try {
                         if (typeHandler instanceof R2DBCTypeHandler) {
@@ -198,12 +528,7 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
                             if (value == null) {
                                 statement.bindNull(i, parameterMapping.getJavaType());
                             } else {
-                                Class<?> parameterClass = value.getClass();
-                                if (typeHandlerRegistry.hasTypeHandler(parameterClass)) {
-                                    typeHandlerRegistry.getTypeHandler(parameterClass).setParameter(statement, i, value, parameterMapping.getJdbcType());
-                                } else {
-                                    statement.bind(i, value);
-                                }
+                                bindValue(statement, i, value, parameterMapping.getJdbcType());
                             }
                         }
                     } catch (TypeException e) {
@@ -214,90 +539,412 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
         }
     }
 
-    public Object convertRowToResult(Row row, RowMetadata rowMetadata, ResultMap resultMap) {
-        //number
-        Class<?> type = resultMap.getType();
-        boolean pojoMapping = !resultMap.getResultMappings().isEmpty();
-        if (NUMBER_TYPES.contains(type)) {
-            Number columnValue = (Number) row.get(0);
-            if (columnValue == null) {
-                return null;
+    /**
+     * fill parameters with binding plan for static SQL, and parameter mappings of dynamic SQL are resolved on every call
+     */
+    private void fillParams(Statement statement, MappedStatement mappedStatement, BoundSql boundSql, Object parameter) {
+        boolean recording = metricsRecorder != MetricsRecorder.NOOP;
+        long start = recording ? System.nanoTime() : 0;
+        SqlSource sqlSource = mappedStatement.getSqlSource();
+        if (sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource) {
+            bindingPlans.computeIfAbsent(mappedStatement, ms -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(parameter.getClass(), parameterClass -> compileBindingPlan(boundSql, parameterClass))
+                    .bind(statement, boundSql, parameter);
+        } else {
+            fillParams(statement, boundSql, parameter);
+        }
+        if (recording) {
+            metricsRecorder.recordBindTime(mappedStatement.getId(), System.nanoTime() - start);
+        }
+    }
+
+    private ParameterBindingPlan compileBindingPlan(BoundSql boundSql, Class<?> parameterClass) {
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        int size = parameterMappings == null ? 0 : parameterMappings.size();
+        ParameterMapping[] mappings = new ParameterMapping[size];
+        ParameterBindingPlan.ParameterExtractor[] extractors = new ParameterBindingPlan.ParameterExtractor[size];
+        ParameterBindingPlan.ParameterBinder[] binders = new ParameterBindingPlan.ParameterBinder[size];
+        boolean simpleParameter = typeHandlerRegistry.hasTypeHandler(parameterClass)
+                || configuration.getTypeHandlerRegistry().hasTypeHandler(parameterClass);
+        for (int i = 0; i < size; i++) {
+            ParameterMapping parameterMapping = parameterMappings.get(i);
+            mappings[i] = parameterMapping;
+            if (parameterMapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String propertyName = parameterMapping.getProperty();
+            if (boundSql.hasAdditionalParameter(propertyName)) {
+                extractors[i] = (sql, parameter) -> sql.getAdditionalParameter(propertyName);
+            } else if (simpleParameter) {
+                extractors[i] = (sql, parameter) -> parameter;
+            } else {
+                PropertyGetter getter = propertyAccessorFactory.getGetter(parameterClass, propertyName);
+                extractors[i] = (sql, parameter) -> getter.get(parameter);
             }
-            if (type.equals(columnValue.getClass())) {
-                return columnValue;
-            } else if (type.equals(Byte.class) || type.equals(byte.class)) {
-                return columnValue.byteValue();
-            } else if (type.equals(Short.class) || type.equals(short.class)) {
-                return columnValue.shortValue();
-            } else if (type.equals(Integer.class) || type.equals(int.class)) {
-                return columnValue.intValue();
-            } else if (type.equals(Long.class) || type.equals(long.class)) {
-                return columnValue.longValue();
-            } else if (type.equals(Float.class) || type.equals(float.class)) {
-                return columnValue.floatValue();
-            } else if (type.equals(Double.class) || type.equals(double.class)) {
-                return columnValue.doubleValue();
+            binders[i] = compileBinder(parameterMapping);
+        }
+        return new ParameterBindingPlan(mappings, extractors, binders);
+    }
+
+    private ParameterBindingPlan.ParameterBinder compileBinder(ParameterMapping parameterMapping) {
+        JdbcType jdbcType = parameterMapping.getJdbcType();
+        TypeHandler<?> typeHandler = parameterMapping.getTypeHandler();
+        if (typeHandler instanceof R2DBCTypeHandler) {
+            R2DBCTypeHandler<Object> r2dbcTypeHandler = (R2DBCTypeHandler<Object>) typeHandler;
+            return (statement, index, value) -> r2dbcTypeHandler.setParameter(statement, index, value, jdbcType);
+        }
+        Class<?> javaType = parameterMapping.getJavaType();
+        // the handler resolved for declared java type is used when value has the same class
+        R2DBCTypeHandler<Object> javaTypeHandler = typeHandlerRegistry.hasTypeHandler(javaType) ? (R2DBCTypeHandler<Object>) typeHandlerRegistry.getTypeHandler(javaType) : null;
+        return (statement, index, value) -> {
+            if (value == null) {
+                statement.bindNull(index, javaType);
+            } else if (value.getClass() != javaType) {
+                bindValue(statement, index, value, jdbcType);
+            } else if (javaTypeHandler != null) {
+                javaTypeHandler.setParameter(statement, index, value, jdbcType);
             } else {
-                return columnValue;
+                statement.bind(index, value);
+            }
+        };
+    }
+
+    private void bindValue(Statement statement, int index, Object value) {
+        bindValue(statement, index, value, null);
+    }
+
+    private void bindValue(Statement statement, int index, Object value, JdbcType jdbcType) {
+        Class<?> parameterClass = value.getClass();
+        if (typeHandlerRegistry.hasTypeHandler(parameterClass)) {
+            typeHandlerRegistry.getTypeHandler(parameterClass).setParameter(statement, index, value, jdbcType);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    private Object parameterValue(BoundSql boundSql, ParameterMapping parameterMapping, Object parameter) {
+        String propertyName = parameterMapping.getProperty();
+        if (boundSql.hasAdditionalParameter(propertyName)) {
+            return boundSql.getAdditionalParameter(propertyName);
+        } else if (parameter == null) {
+            return null;
+        } else if (typeHandlerRegistry.hasTypeHandler(parameter.getClass())
+                || configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+            return parameter;
+        } else {
+            return propertyAccessorFactory.getGetter(parameter.getClass(), propertyName).get(parameter);
+        }
+    }
+
+    /**
+     * create cache key with statement id, row bounds, SQL and parameter values, same as MyBatis BaseExecutor
+     */
+    private CacheKey createCacheKey(MappedStatement mappedStatement, BoundSql boundSql, String sql, Object parameter, RowBounds rowBounds) {
+        CacheKey cacheKey = new CacheKey();
+        cacheKey.update(mappedStatement.getId());
+        cacheKey.update(rowBounds.getOffset());
+        cacheKey.update(rowBounds.getLimit());
+        cacheKey.update(sql);
+        for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+            if (parameterMapping.getMode() != ParameterMode.OUT) {
+                cacheKey.update(parameterValue(boundSql, parameterMapping, parameter));
             }
-        } else if (typeHandlerRegistry.hasTypeHandler(type)) {
-            R2DBCTypeHandler<?> mappingTypeHandler = typeHandlerRegistry.getTypeHandler(type);
-            return mappingTypeHandler.getResult(row, 0, rowMetadata);
-        } else if (pojoMapping) {
-            Object object = objectFactory.create(type);
-            MetaObject resultMetaObject = configuration.newMetaObject(object);
-            List<ResultMapping> resultMappings = resultMap.getResultMappings();
-            if (!resultMappings.isEmpty()) {
-                for (ResultMapping resultMapping : resultMappings) {
-                    Class<?> javaType = resultMapping.getJavaType();
-                    Object columnValue;
-                    TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
-                    if (typeHandler instanceof R2DBCTypeHandler) {
-                        columnValue = ((R2DBCTypeHandler<?>) typeHandler).getResult(row, resultMapping.getColumn(), rowMetadata);
-                    } else if (typeHandlerRegistry.hasTypeHandler(javaType)) {
-                        columnValue = typeHandlerRegistry.getTypeHandler(javaType).getResult(row, resultMapping.getColumn(), rowMetadata);
-                    } else {
-                        columnValue = row.get(resultMapping.getColumn(), javaType);
+        }
+        if (rowBounds instanceof KeysetRowBounds) {
+            cacheKey.update(((KeysetRowBounds) rowBounds).getLastKey());
+        }
+        if (configuration.getEnvironment() != null) {
+            cacheKey.update(configuration.getEnvironment().getId());
+        }
+        return cacheKey;
+    }
+
+    /**
+     * bind all parameter sets on one statement with Statement.add() and execute them in one round trip,
+     * consecutive parameters with the same SQL text share one statement
+     */
+    private Flux<Integer> executeBatch(MappedStatement mappedStatement, Iterable<?> parameters, boolean useGeneratedKeys) {
+        List<Object> parameterList = new ArrayList<>();
+        List<BoundSql> boundSqlList = new ArrayList<>();
+        for (Object parameter : parameters) {
+            parameterList.add(parameter);
+            boundSqlList.add(boundSqlCache.getBoundSql(mappedStatement, parameter));
+        }
+        if (parameterList.isEmpty()) {
+            return Flux.empty();
+        }
+        Flux<Integer> rowsUpdated = getConnection().flatMapMany(connection -> {
+            List<Statement> statements = new ArrayList<>();
+            List<List<Object>> statementParameters = new ArrayList<>();
+            String lastSql = null;
+            Statement statement = null;
+            for (int i = 0; i < parameterList.size(); i++) {
+                Object parameter = parameterList.get(i);
+                BoundSql boundSql = boundSqlList.get(i);
+                if (statement == null || !boundSql.getSql().equals(lastSql)) {
+                    lastSql = boundSql.getSql();
+                    statement = createStatement(connection, mappedStatement, lastSql);
+                    if (useGeneratedKeys) {
+                        statement.returnGeneratedValues(mappedStatement.getKeyProperties());
                     }
-                    resultMetaObject.setValue(resultMapping.getProperty(), columnValue);
+                    statements.add(statement);
+                    statementParameters.add(new ArrayList<>());
+                } else {
+                    statement.add();
                 }
-            } else {
-                rowMetadata.getColumnNames().forEach(column -> {
-                    Object columnValue = row.get(column);
-                    resultMetaObject.setValue(column, columnValue);
-                });
+                if (parameter != null) {
+                    fillParams(statement, mappedStatement, boundSql, parameter);
+                }
+                statementParameters.get(statementParameters.size() - 1).add(parameter);
             }
-            return object;
-        } else if (type.isAssignableFrom(Map.class)) {
-            Map<String, Object> result = new HashMap<>();
-            for (String columnName : rowMetadata.getColumnNames()) {
-                result.put(columnName, row.get(columnName));
+            return releaseConnection(connection, Flux.range(0, statements.size())
+                    .concatMap(index -> {
+                        List<Object> batchParameters = statementParameters.get(index);
+                        return Flux.from(statements.get(index).execute())
+                                .index()
+                                .concatMap(indexedResult -> insertedRows(indexedResult.getT2(), mappedStatement,
+                                        batchParameters.get(indexedResult.getT1().intValue()), useGeneratedKeys));
+                    }));
+        });
+        return flushCache(mappedStatement, rowsUpdated);
+    }
+
+    private Mono<Integer> insertedRows(Result result, MappedStatement mappedStatement, Object parameter, boolean useGeneratedKeys) {
+        if (!useGeneratedKeys || parameter == null) {
+            return Mono.from(result.getRowsUpdated());
+        } else {
+            Class<?> parameterClass = parameter.getClass();
+            return Mono.from(result.map((row, rowMetadata) -> {
+                for (String keyProperty : mappedStatement.getKeyProperties()) {
+                    Object value = row.get(keyProperty, propertyAccessorFactory.getSetterType(parameterClass, keyProperty));
+                    propertyAccessorFactory.getSetter(parameterClass, keyProperty).set(parameter, value);
+                }
+                return 1;
+            }));
+        }
+    }
+
+    public Object convertRowToResult(Row row, RowMetadata rowMetadata, ResultMap resultMap) {
+        return rowMapperFactory.getRowMapper(resultMap, rowMetadata).map(row, rowMetadata);
+    }
+
+    @Override
+    public <T> Flux<T> inTransaction(Function<ReactiveSqlSession, ? extends Publisher<T>> callback) {
+        return Flux.deferContextual(context -> {
+            if (context.hasKey(connectionFactory)) {
+                // join current transaction
+                return Flux.from(callback.apply(this));
             }
-            return result;
-        } else if (type.isAssignableFrom(Collection.class)) {
-            List<Object> result = new ArrayList<>();
-            for (String columnName : rowMetadata.getColumnNames()) {
-                result.add(row.get(columnName));
+            // statements whose namespace caches are flushed on commit, keyed by the statement cache of this session
+            Set<MappedStatement> flushedStatements = ConcurrentHashMap.newKeySet();
+            return admit(null, Flux.usingWhen(connectionFactory.create(),
+                    connection -> Flux.usingWhen(Mono.from(connection.beginTransaction()).thenReturn(connection),
+                            transactionConnection -> Flux.from(callback.apply(this))
+                                    .contextWrite(Context.of(connectionFactory, transactionConnection, statementCache, flushedStatements)),
+                            transactionConnection -> Mono.from(transactionConnection.commitTransaction())
+                                    .doOnSuccess(ignore -> flushedStatements.forEach(statementCache::flush)),
+                            (transactionConnection, error) -> transactionConnection.rollbackTransaction(),
+                            Connection::rollbackTransaction),
+                    Connection::close));
+        });
+    }
+
+    @Override
+    public Connection getTransactionConnection(ContextView context) {
+        return context.hasKey(connectionFactory) ? context.get(connectionFactory) : null;
+    }
+
+    private AdmissionController admissionController(Properties variables) {
+        if (!Boolean.parseBoolean(variables.getProperty("r2dbc.admission.enabled", "false"))) {
+            return null;
+        }
+        int maxPermits = Integer.parseInt(variables.getProperty("r2dbc.admission.max-permits", variables.getProperty("r2dbc.pool.max-size", "10")));
+        Duration maxWaitTime = Duration.ofMillis(Long.parseLong(variables.getProperty("r2dbc.admission.max-wait-millis", "5000")));
+        int maxQueueSize = Integer.parseInt(variables.getProperty("r2dbc.admission.max-queue-size", String.valueOf(Integer.MAX_VALUE)));
+        String weightPrefix = "r2dbc.admission.weight.";
+        for (String name : variables.stringPropertyNames()) {
+            if (name.startsWith(weightPrefix)) {
+                statementWeights.put(name.substring(weightPrefix.length()), Integer.parseInt(variables.getProperty(name)));
             }
-            return result;
+        }
+        return new AdmissionController(maxPermits, maxWaitTime, maxQueueSize);
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * record execution time and rows of every subscription, and cancellation is recorded separately
+     */
+    private <T> Flux<T> measure(String statementId, Flux<T> flux, ToLongFunction<? super T> rowCounter, boolean update) {
+        if (metricsRecorder == MetricsRecorder.NOOP) {
+            return flux;
+        }
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            long[] rows = new long[1];
+            return flux.doOnNext(value -> rows[0] += rowCounter.applyAsLong(value))
+                    .doFinally(signalType -> recordStatement(statementId, start, rows[0], signalType, update));
+        });
+    }
+
+    private <T> Mono<T> measure(String statementId, Mono<T> mono, ToLongFunction<? super T> rowCounter, boolean update) {
+        if (metricsRecorder == MetricsRecorder.NOOP) {
+            return mono;
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            long[] rows = new long[1];
+            return mono.doOnNext(value -> rows[0] += rowCounter.applyAsLong(value))
+                    .doFinally(signalType -> recordStatement(statementId, start, rows[0], signalType, update));
+        });
+    }
+
+    private void recordStatement(String statementId, long start, long rows, SignalType signalType, boolean update) {
+        if (signalType == SignalType.CANCEL) {
+            metricsRecorder.recordStatementCancelled(statementId, System.nanoTime() - start);
         } else {
-            return row.get(0, type);
+            metricsRecorder.recordStatement(statementId, System.nanoTime() - start, signalType != SignalType.ON_ERROR);
+        }
+        if (update) {
+            metricsRecorder.recordRowsUpdated(statementId, rows);
+        } else {
+            metricsRecorder.recordRowsReturned(statementId, rows);
+        }
+    }
+
+    /**
+     * map rows of one result, and mapping time is recorded when the result terminates
+     */
+    private <T> Publisher<T> mapRows(String statementId, Result result, BiFunction<Row, RowMetadata, T> mappingFunction) {
+        if (metricsRecorder == MetricsRecorder.NOOP) {
+            return result.map(mappingFunction);
         }
+        TimedMappingFunction<T> timedMappingFunction = new TimedMappingFunction<>(mappingFunction);
+        return Flux.from(result.map(timedMappingFunction))
+                .doFinally(signalType -> metricsRecorder.recordMappingTime(statementId, timedMappingFunction.nanos, timedMappingFunction.rows));
+    }
+
+    public MetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    /**
+     * flush namespace cache when the statement terminates, or when the transaction commits if the statement is in transaction,
+     * otherwise a concurrent reader outside the transaction may put stale rows back into the cache before commit
+     */
+    private <T> Mono<T> flushCache(MappedStatement mappedStatement, Mono<T> mono) {
+        if (mappedStatement.getCache() == null) {
+            return mono;
+        }
+        return Mono.deferContextual(context -> {
+            if (context.hasKey(statementCache)) {
+                context.<Set<MappedStatement>>get(statementCache).add(mappedStatement);
+                return mono;
+            }
+            return mono.doFinally(signalType -> statementCache.flush(mappedStatement));
+        });
+    }
+
+    private <T> Flux<T> flushCache(MappedStatement mappedStatement, Flux<T> flux) {
+        if (mappedStatement.getCache() == null) {
+            return flux;
+        }
+        return Flux.deferContextual(context -> {
+            if (context.hasKey(statementCache)) {
+                context.<Set<MappedStatement>>get(statementCache).add(mappedStatement);
+                return flux;
+            }
+            return flux.doFinally(signalType -> statementCache.flush(mappedStatement));
+        });
+    }
+
+    /**
+     * wait for admission permits before statement acquires connection, statements in transaction use transaction's permit
+     */
+    private <T> Flux<T> admit(String statementId, Flux<T> flux) {
+        if (admissionController == null) {
+            return flux;
+        }
+        int weight = statementId == null ? 1 : statementWeights.getOrDefault(statementId, 1);
+        return Flux.deferContextual(context -> context.hasKey(connectionFactory) ? flux : admissionController.admit(weight, flux));
+    }
+
+    private <T> Mono<T> admit(String statementId, Mono<T> mono) {
+        if (admissionController == null) {
+            return mono;
+        }
+        int weight = statementId == null ? 1 : statementWeights.getOrDefault(statementId, 1);
+        return Mono.deferContextual(context -> context.hasKey(connectionFactory) ? mono : admissionController.admit(weight, mono));
     }
 
     private Flux<? extends Result> executeFluxStatement(Connection connection, Statement statement) {
-        return Flux.from(statement.execute())
-                .doFinally(a -> ((Mono) connection.close()).subscribe());
+        return releaseConnection(connection, Flux.from(statement.execute()));
+    }
+
+    /**
+     * close connection when the flux terminates, except the connection bound to current transaction
+     */
+    private <T> Flux<T> releaseConnection(Connection connection, Flux<T> flux) {
+        return Flux.deferContextual(context -> {
+            if (isTransactionConnection(context, connection)) {
+                return flux;
+            }
+            return flux.doFinally(a -> ((Mono) connection.close()).subscribe());
+        });
     }
 
     private Mono<? extends Result> executeMonoStatement(Connection connection, Statement statement) {
-        return Mono.from(statement.execute())
-                .doFinally(a -> ((Mono) connection.close()).subscribe());
+        return Mono.deferContextual(context -> {
+            Mono<Result> result = Mono.from(statement.execute());
+            if (isTransactionConnection(context, connection)) {
+                return result;
+            }
+            return result.doFinally(a -> ((Mono) connection.close()).subscribe());
+        });
     }
 
+    /**
+     * get connection bound to current transaction, or create a new connection
+     *
+     * @return connection
+     */
     private Mono<Connection> getConnection() {
-        Mono<Connection> connection = (Mono<Connection>) connectionFactory.create();
-        return connection;
+        return Mono.deferContextual(context -> {
+            if (context.hasKey(connectionFactory)) {
+                return Mono.just(context.<Connection>get(connectionFactory));
+            }
+            Mono<Connection> connection = (Mono<Connection>) connectionFactory.create();
+            if (metricsRecorder == MetricsRecorder.NOOP) {
+                return connection;
+            }
+            long start = System.nanoTime();
+            return connection.doOnSuccess(created -> metricsRecorder.recordConnectionAcquireTime(System.nanoTime() - start, true))
+                    .doOnError(error -> metricsRecorder.recordConnectionAcquireTime(System.nanoTime() - start, false));
+        });
     }
 
-}
\ No newline at end of file
+    private boolean isTransactionConnection(ContextView context, Connection connection) {
+        return context.hasKey(connectionFactory) && context.get(connectionFactory) == connection;
+    }
+
+    private static class TimedMappingFunction<T> implements BiFunction<Row, RowMetadata, T> {
+        private final BiFunction<Row, RowMetadata, T> mappingFunction;
+        private long nanos;
+        private long rows;
+
+        TimedMappingFunction(BiFunction<Row, RowMetadata, T> mappingFunction) {
+            this.mappingFunction = mappingFunction;
+        }
+
+        @Override
+        public T apply(Row row, RowMetadata rowMetadata) {
+            long start = System.nanoTime();
+            T value = mappingFunction.apply(row, rowMetadata);
+            nanos += System.nanoTime() - start;
+            rows++;
+            return value;
+        }
+    }
+}
@@ -4,14 +4,21 @@ import io.r2dbc.pool.ConnectionPool;
 import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.spi.ConnectionFactories;
 import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ValidationDepth;
 import org.apache.ibatis.r2dbc.ReactiveSqlSession;
 import org.apache.ibatis.r2dbc.ReactiveSqlSessionFactory;
+import org.apache.ibatis.r2dbc.binding.ReactiveMapperRegistry;
+import org.apache.ibatis.r2dbc.metrics.MetricsRecorder;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
 import java.util.Properties;
 
 /**
@@ -20,8 +27,10 @@ import java.util.Properties;
  * @author linux_china
  */
 public class DefaultReactiveSqlSessionFactory implements ReactiveSqlSessionFactory {
+    private static final Log log = LogFactory.getLog(DefaultReactiveSqlSessionFactory.class);
     private final Configuration configuration;
     private final ConnectionFactory connectionFactory;
+    private final ReactiveMapperRegistry mapperRegistry;
     private final ReactiveSqlSession sqlSession;
 
     public DefaultReactiveSqlSessionFactory(Configuration configuration) {
@@ -41,13 +50,21 @@ public class DefaultReactiveSqlSessionFactory implements ReactiveSqlSessionFacto
         assert r2dbcUrl != null;
         ConnectionFactory connectionFactory = ConnectionFactories.get(r2dbcUrl);
         this.connectionFactory = connectionPool(connectionFactory);
-        this.sqlSession = new DefaultReactiveSqlSession(configuration, this.connectionFactory);
+        this.mapperRegistry = new ReactiveMapperRegistry(configuration);
+        DefaultReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(configuration, this.connectionFactory, this.mapperRegistry);
+        this.sqlSession = sqlSession;
+        bindPoolMetrics(sqlSession.getMetricsRecorder());
+        warmUpMappers();
     }
 
     public DefaultReactiveSqlSessionFactory(Configuration configuration, ConnectionFactory connectionFactory) {
         this.configuration = configuration;
         this.connectionFactory = connectionFactory;
-        this.sqlSession = new DefaultReactiveSqlSession(configuration, this.connectionFactory);
+        this.mapperRegistry = new ReactiveMapperRegistry(configuration);
+        DefaultReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(configuration, this.connectionFactory, this.mapperRegistry);
+        this.sqlSession = sqlSession;
+        bindPoolMetrics(sqlSession.getMetricsRecorder());
+        warmUpMappers();
     }
 
     @Override
@@ -65,6 +82,10 @@ public class DefaultReactiveSqlSessionFactory implements ReactiveSqlSessionFacto
         return this.connectionFactory;
     }
 
+    public ReactiveMapperRegistry getMapperRegistry() {
+        return this.mapperRegistry;
+    }
+
     @Override
     public void close() throws IOException {
         if (this.connectionFactory instanceof ConnectionPool) {
@@ -75,28 +96,104 @@ public class DefaultReactiveSqlSessionFactory implements ReactiveSqlSessionFacto
         }
     }
 
+    private void bindPoolMetrics(MetricsRecorder metricsRecorder) {
+        if (this.connectionFactory instanceof ConnectionPool) {
+            ((ConnectionPool) this.connectionFactory).getMetrics().ifPresent(metricsRecorder::bindPoolMetrics);
+        }
+    }
+
+    private void warmUpMappers() {
+        if (Boolean.parseBoolean(configuration.getVariables().getProperty("mapper.warm-up.enabled", "false"))) {
+            this.mapperRegistry.warmUp(this.sqlSession);
+        }
+    }
+
     private ConnectionPool connectionPool(ConnectionFactory connectionFactory) {
         if (connectionFactory instanceof ConnectionPool) {
             return (ConnectionPool) connectionFactory;
         }
-        int initialSize = 1;
-        int maxSize = 10;
-        Duration maxIdleTime = Duration.ofMinutes(30);
         Properties variables = configuration.getVariables();
-        if (variables.containsKey("r2dbc.pool.initial-size")) {
-            initialSize = Integer.parseInt(variables.getProperty("r2dbc.pool.initial-size"));
+        int initialSize = Integer.parseInt(variables.getProperty("r2dbc.pool.initial-size", "1"));
+        int maxSize = Integer.parseInt(variables.getProperty("r2dbc.pool.max-size", "10"));
+        // max idle time without unit is minutes for compatibility
+        Duration maxIdleTime = duration(variables.getProperty("r2dbc.pool.max-idle-time", "30"), ChronoUnit.MINUTES);
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(maxSize)
+                .initialSize(initialSize)
+                .maxIdleTime(maxIdleTime);
+        if (variables.containsKey("r2dbc.pool.max-acquire-time")) {
+            builder.maxAcquireTime(duration(variables.getProperty("r2dbc.pool.max-acquire-time"), ChronoUnit.MILLIS));
         }
-        if (variables.containsKey("r2dbc.pool.max-size")) {
-            maxSize = Integer.parseInt(variables.getProperty("r2dbc.pool.max-size"));
+        if (variables.containsKey("r2dbc.pool.max-create-connection-time")) {
+            builder.maxCreateConnectionTime(duration(variables.getProperty("r2dbc.pool.max-create-connection-time"), ChronoUnit.MILLIS));
         }
-        if (variables.containsKey("r2dbc.pool.max-idle-time")) {
-            maxIdleTime = Duration.ofMinutes(Integer.parseInt(variables.getProperty("r2dbc.pool.max-idle-time")));
+        if (variables.containsKey("r2dbc.pool.max-life-time")) {
+            builder.maxLifeTime(duration(variables.getProperty("r2dbc.pool.max-life-time"), ChronoUnit.MILLIS));
+        }
+        if (variables.containsKey("r2dbc.pool.background-eviction-interval")) {
+            builder.backgroundEvictionInterval(duration(variables.getProperty("r2dbc.pool.background-eviction-interval"), ChronoUnit.MILLIS));
+        }
+        if (variables.containsKey("r2dbc.pool.acquire-retry")) {
+            builder.acquireRetry(Integer.parseInt(variables.getProperty("r2dbc.pool.acquire-retry")));
+        }
+        if (variables.containsKey("r2dbc.pool.validation-query")) {
+            builder.validationQuery(variables.getProperty("r2dbc.pool.validation-query"));
+        }
+        if (variables.containsKey("r2dbc.pool.validation-depth")) {
+            builder.validationDepth(ValidationDepth.valueOf(variables.getProperty("r2dbc.pool.validation-depth").toUpperCase(Locale.ROOT)));
+        }
+        if (variables.containsKey("r2dbc.pool.name")) {
+            builder.name(variables.getProperty("r2dbc.pool.name"));
+        }
+        ConnectionPool connectionPool = new ConnectionPool(builder.build());
+        // warm up blocks the constructor until connections are opened or timeout, so it is opt-in
+        if (Boolean.parseBoolean(variables.getProperty("r2dbc.pool.warm-up.enabled", "false"))) {
+            warmUpPool(connectionPool, duration(variables.getProperty("r2dbc.pool.warm-up.timeout", "10000"), ChronoUnit.MILLIS));
+        }
+        return connectionPool;
+    }
+
+    /**
+     * open initial-size connections before the factory is ready, and the pool still opens connections on demand if warm up fails
+     */
+    private void warmUpPool(ConnectionPool connectionPool, Duration timeout) {
+        try {
+            connectionPool.warmup().block(timeout);
+        } catch (Exception e) {
+            log.warn("Failed to warm up R2DBC connection pool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * parse duration: number with default unit, number with ms/s/m/h/d suffix (whitespace before suffix is allowed),
+     * or ISO-8601 format such as PT30S
+     */
+    static Duration duration(String value, ChronoUnit defaultUnit) {
+        String text = value.trim();
+        if (text.startsWith("P") || text.startsWith("p")) {
+            return Duration.parse(text);
+        }
+        int unitStart = text.length();
+        while (unitStart > 0 && !Character.isDigit(text.charAt(unitStart - 1))) {
+            unitStart--;
+        }
+        long amount = Long.parseLong(text.substring(0, unitStart));
+        String unit = text.substring(unitStart).trim().toLowerCase(Locale.ROOT);
+        switch (unit) {
+            case "":
+                return Duration.of(amount, defaultUnit);
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException("Illegal duration: " + value);
         }
-        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(connectionFactory)
-                .maxSize(maxSize)
-                .initialSize(initialSize)
-                .maxIdleTime(maxIdleTime)
-                .build();
-        return new ConnectionPool(configuration);
     }
 }
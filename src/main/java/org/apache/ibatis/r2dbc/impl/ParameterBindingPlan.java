@@ -0,0 +1,49 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import io.r2dbc.spi.Statement;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.type.TypeException;
+
+/**
+ * Parameter binding plan: value extractor and binder of every parameter mapping, compiled once for statement and parameter class
+ *
+ * @author linux_china
+ */
+class ParameterBindingPlan {
+    private final ParameterMapping[] parameterMappings;
+    private final ParameterExtractor[] extractors;
+    private final ParameterBinder[] binders;
+
+    ParameterBindingPlan(ParameterMapping[] parameterMappings, ParameterExtractor[] extractors, ParameterBinder[] binders) {
+        this.parameterMappings = parameterMappings;
+        this.extractors = extractors;
+        this.binders = binders;
+    }
+
+    /**
+     * bind parameter values, and OUT parameters without extractor are skipped
+     */
+    void bind(Statement statement, BoundSql boundSql, Object parameter) {
+        for (int i = 0; i < extractors.length; i++) {
+            ParameterExtractor extractor = extractors[i];
+            if (extractor != null) {
+                try {
+                    binders[i].bind(statement, i, extractor.extract(boundSql, parameter));
+                } catch (TypeException e) {
+                    throw new TypeException("Could not set parameters for mapping: " + parameterMappings[i] + ". Cause: " + e, e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ParameterExtractor {
+        Object extract(BoundSql boundSql, Object parameter);
+    }
+
+    @FunctionalInterface
+    interface ParameterBinder {
+        void bind(Statement statement, int index, Object value);
+    }
+}
@@ -0,0 +1,114 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL stability tracker for statements with prepare hint: drivers cache prepared statements by SQL text,
+ * so every new SQL text of a statement is prepared again by the database
+ *
+ * @author linux_china
+ */
+public class SqlStabilityTracker {
+    private static final Log log = LogFactory.getLog(SqlStabilityTracker.class);
+    private final int maxSqlVariants;
+    private final Map<String, StatementStats> statementStats = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxSqlVariants SQL variants of one statement before it is reported as unstable
+     */
+    public SqlStabilityTracker(int maxSqlVariants) {
+        this.maxSqlVariants = maxSqlVariants;
+    }
+
+    public void record(String statementId, String sql) {
+        StatementStats stats = statementStats.computeIfAbsent(statementId, StatementStats::new);
+        if (stats.record(sql, maxSqlVariants) && stats.reported.compareAndSet(false, true)) {
+            log.warn("Statement '" + statementId + "' generated more than " + maxSqlVariants
+                    + " SQL variants, prepared statements can't be reused by driver");
+        }
+    }
+
+    /**
+     * @return statistics of statements
+     */
+    public Collection<StatementStats> getStatementStats() {
+        return Collections.unmodifiableCollection(statementStats.values());
+    }
+
+    public StatementStats getStatementStats(String statementId) {
+        return statementStats.get(statementId);
+    }
+
+    /**
+     * @return id of statements with more than one SQL variant, which are prepared again
+     */
+    public List<String> getRepreparedStatements() {
+        List<String> statementIds = new ArrayList<>();
+        for (StatementStats stats : statementStats.values()) {
+            if (stats.getSqlVariants() > 1) {
+                statementIds.add(stats.getStatementId());
+            }
+        }
+        return statementIds;
+    }
+
+    public static class StatementStats {
+        private final String statementId;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder sqlChanges = new LongAdder();
+        private final Set<String> sqlVariants = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean reported = new AtomicBoolean();
+        private volatile String lastSql;
+
+        StatementStats(String statementId) {
+            this.statementId = statementId;
+        }
+
+        /**
+         * @return true if SQL variants exceed max
+         */
+        boolean record(String sql, int maxSqlVariants) {
+            executions.increment();
+            String previous = lastSql;
+            if (previous != sql && !sql.equals(previous)) {
+                lastSql = sql;
+                if (previous != null) {
+                    sqlChanges.increment();
+                }
+                // variants are kept up to max + 1 to bound memory
+                if (sqlVariants.size() <= maxSqlVariants) {
+                    sqlVariants.add(sql);
+                }
+            }
+            return sqlVariants.size() > maxSqlVariants;
+        }
+
+        public String getStatementId() {
+            return statementId;
+        }
+
+        public long getExecutions() {
+            return executions.sum();
+        }
+
+        /**
+         * @return executions with different SQL text from the previous execution
+         */
+        public long getSqlChanges() {
+            return sqlChanges.sum();
+        }
+
+        /**
+         * @return distinct SQL texts, at most max variants + 1
+         */
+        public int getSqlVariants() {
+            return sqlVariants.size();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.util.function.BiFunction;
+
+/**
+ * Chunk mapper: collect rows into a chunk, and return the chunk from Result.map() when it is full.
+ * The mapper is stateful and used by one subscription.
+ *
+ * @author linux_china
+ */
+public interface ChunkMapper<T> extends BiFunction<Row, RowMetadata, T> {
+
+    /**
+     * @param value value returned by apply()
+     * @return true for full chunk, false for the placeholder returned before the chunk is full
+     */
+    boolean isChunk(T value);
+
+    /**
+     * @return rows left in the buffer, null if no rows left
+     */
+    T remaining();
+}
@@ -0,0 +1,80 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import java.util.List;
+
+/**
+ * Column batch: values of consecutive rows stored by column, integral columns in long[], floating columns in double[]
+ * and other columns in Object[]. Null values are 0 in primitive arrays and flagged by isNull().
+ *
+ * @author linux_china
+ */
+public class ColumnBatch {
+    private final List<String> columnNames;
+    private final Class<?>[] columnTypes;
+    private final Object[] columns;
+    private final boolean[][] nulls;
+    private final int size;
+
+    ColumnBatch(List<String> columnNames, Class<?>[] columnTypes, Object[] columns, boolean[][] nulls, int size) {
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.columns = columns;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * @return rows in this batch, and arrays may be longer than size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param column column name, case insensitive
+     * @return column index, -1 if not found
+     */
+    public int indexOf(String column) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (columnNames.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param column column index
+     * @return long.class, double.class or Object.class
+     */
+    public Class<?> getColumnType(int column) {
+        return columnTypes[column];
+    }
+
+    public long[] getLongs(int column) {
+        return (long[]) typedColumn(column, long.class);
+    }
+
+    public double[] getDoubles(int column) {
+        return (double[]) typedColumn(column, double.class);
+    }
+
+    public Object[] getObjects(int column) {
+        return (Object[]) typedColumn(column, Object.class);
+    }
+
+    public boolean isNull(int column, int row) {
+        return nulls[column][row];
+    }
+
+    private Object typedColumn(int column, Class<?> type) {
+        if (columnTypes[column] != type) {
+            throw new IllegalStateException("Column '" + columnNames.get(column) + "' is stored as " + columnTypes[column].getName() + ", not " + type.getName());
+        }
+        return columns[column];
+    }
+}
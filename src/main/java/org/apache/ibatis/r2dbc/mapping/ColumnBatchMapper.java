@@ -0,0 +1,101 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.r2dbc.mapping.RowMapperFactory.ColumnBatchLayout;
+
+import java.util.Collections;
+
+/**
+ * Column batch mapper: write rows into column arrays, and return the batch when it is full.
+ * EMPTY is returned for other rows.
+ *
+ * @author linux_china
+ */
+public class ColumnBatchMapper implements ChunkMapper<ColumnBatch> {
+    public static final ColumnBatch EMPTY = new ColumnBatch(Collections.emptyList(), new Class<?>[0], new Object[0], new boolean[0][], 0);
+    private final RowMapperFactory rowMapperFactory;
+    private final ResultMap resultMap;
+    private final int chunkSize;
+    private RowMetadata lastRowMetadata;
+    private ColumnBatchLayout layout;
+    private Object[] columns;
+    private boolean[][] nulls;
+    private int size;
+
+    ColumnBatchMapper(RowMapperFactory rowMapperFactory, ResultMap resultMap, int chunkSize) {
+        this.rowMapperFactory = rowMapperFactory;
+        this.resultMap = resultMap;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ColumnBatch apply(Row row, RowMetadata rowMetadata) {
+        if (rowMetadata != lastRowMetadata) {
+            ColumnBatchLayout newLayout = rowMapperFactory.getColumnBatchLayout(resultMap, rowMetadata);
+            if (size > 0 && newLayout != layout) {
+                throw new IllegalStateException("Columns changed in the middle of a column batch");
+            }
+            layout = newLayout;
+            lastRowMetadata = rowMetadata;
+        }
+        if (columns == null) {
+            allocate();
+        }
+        Class<?>[] columnTypes = layout.columnTypes;
+        for (int i = 0; i < columnTypes.length; i++) {
+            Object value = layout.readers[i].read(row, rowMetadata);
+            if (value == null) {
+                nulls[i][size] = true;
+            } else if (columnTypes[i] == long.class) {
+                ((long[]) columns[i])[size] = ((Number) value).longValue();
+            } else if (columnTypes[i] == double.class) {
+                ((double[]) columns[i])[size] = ((Number) value).doubleValue();
+            } else {
+                ((Object[]) columns[i])[size] = value;
+            }
+        }
+        size++;
+        if (size < chunkSize) {
+            return EMPTY;
+        }
+        return flush();
+    }
+
+    @Override
+    public boolean isChunk(ColumnBatch value) {
+        return value != EMPTY;
+    }
+
+    @Override
+    public ColumnBatch remaining() {
+        if (size == 0) {
+            return null;
+        }
+        return flush();
+    }
+
+    private void allocate() {
+        Class<?>[] columnTypes = layout.columnTypes;
+        columns = new Object[columnTypes.length];
+        nulls = new boolean[columnTypes.length][chunkSize];
+        for (int i = 0; i < columnTypes.length; i++) {
+            if (columnTypes[i] == long.class) {
+                columns[i] = new long[chunkSize];
+            } else if (columnTypes[i] == double.class) {
+                columns[i] = new double[chunkSize];
+            } else {
+                columns[i] = new Object[chunkSize];
+            }
+        }
+    }
+
+    private ColumnBatch flush() {
+        ColumnBatch batch = new ColumnBatch(layout.columnNames, layout.columnTypes, columns, nulls, size);
+        columns = null;
+        nulls = null;
+        size = 0;
+        return batch;
+    }
+}
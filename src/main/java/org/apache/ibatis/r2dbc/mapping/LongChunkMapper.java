@@ -0,0 +1,62 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.executor.result.ResultMapException;
+
+import java.util.Arrays;
+
+/**
+ * Long chunk mapper: decode the first column into primitive long buffer, and return the buffer when it is full.
+ * EMPTY is returned for other rows.
+ *
+ * @author linux_china
+ */
+public class LongChunkMapper implements ChunkMapper<long[]> {
+    public static final long[] EMPTY = new long[0];
+    private final String statementId;
+    private final int chunkSize;
+    private long[] buffer;
+    private int size;
+
+    public LongChunkMapper(String statementId, int chunkSize) {
+        this.statementId = statementId;
+        this.chunkSize = chunkSize;
+        this.buffer = new long[chunkSize];
+    }
+
+    /**
+     * @return full chunk, or EMPTY if the chunk is not full; null value is decoded as 0, same as JDBC getLong()
+     */
+    @Override
+    public long[] apply(Row row, RowMetadata rowMetadata) {
+        Object value = row.get(0);
+        if (value != null && !(value instanceof Number)) {
+            throw new ResultMapException("Column '" + rowMetadata.getColumnMetadata(0).getName() + "' of " + statementId
+                    + " is " + value.getClass().getName() + ", not a number");
+        }
+        buffer[size++] = value == null ? 0 : ((Number) value).longValue();
+        if (size < chunkSize) {
+            return EMPTY;
+        }
+        long[] chunk = buffer;
+        buffer = new long[chunkSize];
+        size = 0;
+        return chunk;
+    }
+
+    @Override
+    public boolean isChunk(long[] value) {
+        return value != EMPTY;
+    }
+
+    @Override
+    public long[] remaining() {
+        if (size == 0) {
+            return null;
+        }
+        long[] chunk = Arrays.copyOf(buffer, size);
+        size = 0;
+        return chunk;
+    }
+}
@@ -0,0 +1,22 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Nested query loader: execute nested select of association or collection
+ *
+ * @author linux_china
+ */
+@FunctionalInterface
+public interface NestedQueryLoader {
+
+    /**
+     * load nested select result
+     *
+     * @param statementId nested select statement id
+     * @param parameter   column value or composite column values
+     * @param many        true to load all rows as List, false to load the only row
+     * @return row or rows
+     */
+    Mono<Object> load(String statementId, Object parameter, boolean many);
+}
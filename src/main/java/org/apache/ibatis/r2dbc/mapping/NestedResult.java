@@ -0,0 +1,90 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nested result: object mapped from one joined row with its key and nested association/collection results.
+ * Results of consecutive rows with the same key are merged into the first one.
+ *
+ * @author linux_china
+ */
+public class NestedResult {
+    private final NestedRowMapper mapper;
+    private final List<Object> key;
+    private final Object value;
+    private final List<NestedResult> associations;
+    private final List<Collection<Object>> collections;
+    private final List<Map<List<Object>, NestedResult>> collectionElements;
+
+    NestedResult(NestedRowMapper mapper, List<Object> key, Object value, NestedResult[] children) {
+        this.mapper = mapper;
+        this.key = key;
+        this.value = value;
+        int size = children.length;
+        this.associations = new ArrayList<>(Collections.nCopies(size, null));
+        this.collections = new ArrayList<>(Collections.nCopies(size, null));
+        this.collectionElements = new ArrayList<>(Collections.nCopies(size, null));
+        for (int i = 0; i < size; i++) {
+            NestedResult child = children[i];
+            if (mapper.isCollection(i)) {
+                Collection<Object> collection = mapper.newCollection(i);
+                Map<List<Object>, NestedResult> elements = new LinkedHashMap<>();
+                collections.set(i, collection);
+                collectionElements.set(i, elements);
+                mapper.setNested(i, value, collection);
+                if (child != null) {
+                    collection.add(child.value);
+                    elements.put(child.key, child);
+                }
+            } else if (child != null) {
+                associations.set(i, child);
+                mapper.setNested(i, value, child.value);
+            }
+        }
+    }
+
+    public List<Object> getKey() {
+        return key;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * merge nested results of other row with the same key
+     *
+     * @param other nested result of other row
+     * @return this
+     */
+    public NestedResult merge(NestedResult other) {
+        for (int i = 0; i < associations.size(); i++) {
+            if (other.collections.get(i) != null) {
+                Map<List<Object>, NestedResult> elements = collectionElements.get(i);
+                for (NestedResult element : other.collectionElements.get(i).values()) {
+                    NestedResult existing = elements.get(element.key);
+                    if (existing == null) {
+                        elements.put(element.key, element);
+                        collections.get(i).add(element.value);
+                    } else {
+                        existing.merge(element);
+                    }
+                }
+            } else if (other.associations.get(i) != null) {
+                NestedResult association = associations.get(i);
+                if (association == null) {
+                    associations.set(i, other.associations.get(i));
+                    mapper.setNested(i, value, other.associations.get(i).value);
+                } else {
+                    association.merge(other.associations.get(i));
+                }
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,86 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.r2dbc.reflection.PropertySetter;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Nested row mapper: compiled plan to map one joined row to object with nested association/collection objects.
+ * The nested object is null when all of its columns are null.
+ *
+ * @author linux_china
+ */
+@SuppressWarnings("unchecked")
+class NestedRowMapper {
+    private final Class<?> type;
+    private final ObjectFactory objectFactory;
+    private final boolean root;
+    private final RowMapperFactory.ColumnValueReader[] readers;
+    private final PropertySetter[] setters;
+    private final int[] keyIndexes;
+    private final NestedRowMapper[] nestedMappers;
+    private final PropertySetter[] nestedSetters;
+    private final Class<?>[] collectionTypes;
+    private final RowMapperFactory.AutoMapping autoMapping;
+
+    NestedRowMapper(Class<?> type, ObjectFactory objectFactory, boolean root,
+                    RowMapperFactory.ColumnValueReader[] readers, PropertySetter[] setters, int[] keyIndexes,
+                    NestedRowMapper[] nestedMappers, PropertySetter[] nestedSetters, Class<?>[] collectionTypes,
+                    RowMapperFactory.AutoMapping autoMapping) {
+        this.type = type;
+        this.objectFactory = objectFactory;
+        this.root = root;
+        this.readers = readers;
+        this.setters = setters;
+        this.keyIndexes = keyIndexes;
+        this.nestedMappers = nestedMappers;
+        this.nestedSetters = nestedSetters;
+        this.collectionTypes = collectionTypes;
+        this.autoMapping = autoMapping;
+    }
+
+    NestedResult map(Row row, RowMetadata rowMetadata) {
+        boolean found = false;
+        Object[] values = new Object[readers.length];
+        for (int i = 0; i < readers.length; i++) {
+            values[i] = readers[i].read(row, rowMetadata);
+            found |= values[i] != null;
+        }
+        NestedResult[] children = new NestedResult[nestedMappers.length];
+        for (int i = 0; i < nestedMappers.length; i++) {
+            children[i] = nestedMappers[i].map(row, rowMetadata);
+            found |= children[i] != null;
+        }
+        if (!found && !root) {
+            return null;
+        }
+        Object value = objectFactory.create(type);
+        for (int i = 0; i < setters.length; i++) {
+            if (values[i] != null) {
+                setters[i].set(value, values[i]);
+            }
+        }
+        autoMapping.apply(value, row, rowMetadata);
+        Object[] key = new Object[keyIndexes.length];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            key[i] = values[keyIndexes[i]];
+        }
+        return new NestedResult(this, Arrays.asList(key), value, children);
+    }
+
+    boolean isCollection(int index) {
+        return collectionTypes[index] != null;
+    }
+
+    Collection<Object> newCollection(int index) {
+        return (Collection<Object>) objectFactory.create(collectionTypes[index]);
+    }
+
+    void setNested(int index, Object target, Object value) {
+        nestedSetters[index].set(target, value);
+    }
+}
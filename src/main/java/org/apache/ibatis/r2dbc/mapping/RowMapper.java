@@ -0,0 +1,15 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+/**
+ * Row mapper: compiled plan to convert R2DBC row to result object
+ *
+ * @author linux_china
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(Row row, RowMetadata rowMetadata);
+}
@@ -0,0 +1,731 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.r2dbc.reflection.ObjectConstructor;
+import org.apache.ibatis.r2dbc.reflection.PropertyAccessorFactory;
+import org.apache.ibatis.r2dbc.reflection.PropertySetter;
+import org.apache.ibatis.r2dbc.type.R2DBCTypeHandler;
+import org.apache.ibatis.r2dbc.type.TypeHandlerRegistry;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Constructor;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Row mapper factory: compile row mapper plan once per (ResultMap id, column layout) and cache it
+ *
+ * @author linux_china
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class RowMapperFactory {
+    private static final Set<Class<?>> NUMBER_TYPES = new HashSet<>(Arrays.asList(byte.class, short.class, int.class, long.class, float.class, double.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class));
+    private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = new HashMap<>();
+    private final Configuration configuration;
+    private final ObjectFactory objectFactory;
+    private final TypeHandlerRegistry typeHandlerRegistry;
+    private final PropertyAccessorFactory propertyAccessorFactory;
+    private final Map<String, RowMapper<?>> rowMapperCache = new ConcurrentHashMap<>();
+    private final Map<String, NestedRowMapper> nestedRowMapperCache = new ConcurrentHashMap<>();
+    private final Map<String, ColumnBatchLayout> columnBatchLayoutCache = new ConcurrentHashMap<>();
+    private final Map<String, NestedQuery[]> nestedQueryCache = new ConcurrentHashMap<>();
+
+    static {
+        PRIMITIVE_DEFAULTS.put(boolean.class, false);
+        PRIMITIVE_DEFAULTS.put(byte.class, (byte) 0);
+        PRIMITIVE_DEFAULTS.put(short.class, (short) 0);
+        PRIMITIVE_DEFAULTS.put(char.class, (char) 0);
+        PRIMITIVE_DEFAULTS.put(int.class, 0);
+        PRIMITIVE_DEFAULTS.put(long.class, 0L);
+        PRIMITIVE_DEFAULTS.put(float.class, 0F);
+        PRIMITIVE_DEFAULTS.put(double.class, 0D);
+    }
+
+    public RowMapperFactory(Configuration configuration, TypeHandlerRegistry typeHandlerRegistry, PropertyAccessorFactory propertyAccessorFactory) {
+        this.configuration = configuration;
+        this.objectFactory = configuration.getObjectFactory();
+        this.typeHandlerRegistry = typeHandlerRegistry;
+        this.propertyAccessorFactory = propertyAccessorFactory;
+    }
+
+    /**
+     * get compiled row mapper for result map and row metadata
+     *
+     * @param resultMap   result map
+     * @param rowMetadata row metadata
+     * @return row mapper
+     */
+    public <T> RowMapper<T> getRowMapper(ResultMap resultMap, RowMetadata rowMetadata) {
+        List<String> columnNames = columnNames(rowMetadata);
+        String key = resultMap.getId() + ":" + String.join(",", columnNames);
+        return (RowMapper<T>) rowMapperCache.computeIfAbsent(key, k -> compile(resultMap, columnNames));
+    }
+
+    /**
+     * create mapping function for one R2DBC result, and the row mapper will be resolved once for the same row metadata
+     *
+     * @param resultMap result map
+     * @return mapping function for Result.map()
+     */
+    public <T> BiFunction<Row, RowMetadata, T> newMappingFunction(ResultMap resultMap) {
+        return new BiFunction<Row, RowMetadata, T>() {
+            private RowMetadata lastRowMetadata;
+            private RowMapper<T> rowMapper;
+
+            @Override
+            public T apply(Row row, RowMetadata rowMetadata) {
+                if (rowMetadata != lastRowMetadata) {
+                    rowMapper = getRowMapper(resultMap, rowMetadata);
+                    lastRowMetadata = rowMetadata;
+                }
+                return rowMapper.map(row, rowMetadata);
+            }
+        };
+    }
+
+    /**
+     * create column batch mapper for one subscription, and column types are resolved from result map or column metadata
+     *
+     * @param resultMap result map
+     * @param chunkSize rows for one batch
+     * @return column batch mapper for Result.map()
+     */
+    public ColumnBatchMapper newColumnBatchMapper(ResultMap resultMap, int chunkSize) {
+        return new ColumnBatchMapper(this, resultMap, chunkSize);
+    }
+
+    ColumnBatchLayout getColumnBatchLayout(ResultMap resultMap, RowMetadata rowMetadata) {
+        List<String> columnNames = columnNames(rowMetadata);
+        String key = resultMap.getId() + ":" + String.join(",", columnNames);
+        return columnBatchLayoutCache.computeIfAbsent(key, k -> compileColumnBatch(resultMap, rowMetadata, columnNames));
+    }
+
+    /**
+     * create mapping function for result map with nested result maps: every row is mapped to nested result,
+     * and nested results of consecutive rows with the same key should be merged by NestedResult.merge()
+     *
+     * @param resultMap result map with nested result maps
+     * @return mapping function for Result.map()
+     */
+    public BiFunction<Row, RowMetadata, NestedResult> newNestedMappingFunction(ResultMap resultMap) {
+        return new BiFunction<Row, RowMetadata, NestedResult>() {
+            private RowMetadata lastRowMetadata;
+            private NestedRowMapper rowMapper;
+
+            @Override
+            public NestedResult apply(Row row, RowMetadata rowMetadata) {
+                if (rowMetadata != lastRowMetadata) {
+                    List<String> columnNames = columnNames(rowMetadata);
+                    String key = resultMap.getId() + ":" + String.join(",", columnNames);
+                    rowMapper = nestedRowMapperCache.computeIfAbsent(key, k -> compileNested(resultMap, columnNames, null, true, new HashSet<>()));
+                    lastRowMetadata = rowMetadata;
+                }
+                return rowMapper.map(row, rowMetadata);
+            }
+        };
+    }
+
+    /**
+     * create mapping function for result map with nested selects: Mono or Flux properties are set with deferred nested selects,
+     * which are executed only when subscribed, and other properties are loaded before the returned Mono emits the object
+     *
+     * @param resultMap result map with nested queries
+     * @param loader    nested query loader
+     * @return mapping function for Result.map()
+     */
+    public <T> BiFunction<Row, RowMetadata, Mono<T>> newNestedQueryMappingFunction(ResultMap resultMap, NestedQueryLoader loader) {
+        BiFunction<Row, RowMetadata, T> mappingFunction = newMappingFunction(resultMap);
+        return new BiFunction<Row, RowMetadata, Mono<T>>() {
+            private RowMetadata lastRowMetadata;
+            private NestedQuery[] nestedQueries;
+
+            @Override
+            public Mono<T> apply(Row row, RowMetadata rowMetadata) {
+                if (rowMetadata != lastRowMetadata) {
+                    List<String> columnNames = columnNames(rowMetadata);
+                    String key = resultMap.getId() + ":" + String.join(",", columnNames);
+                    nestedQueries = nestedQueryCache.computeIfAbsent(key, k -> compileNestedQueries(resultMap, columnNames));
+                    lastRowMetadata = rowMetadata;
+                }
+                T value = mappingFunction.apply(row, rowMetadata);
+                List<Mono<?>> loads = null;
+                for (NestedQuery nestedQuery : nestedQueries) {
+                    Mono<?> load = nestedQuery.apply(value, row, loader);
+                    if (load != null) {
+                        if (loads == null) {
+                            loads = new ArrayList<>();
+                        }
+                        loads.add(load);
+                    }
+                }
+                return loads == null ? Mono.just(value) : Mono.when(loads).thenReturn(value);
+            }
+        };
+    }
+
+    private NestedQuery[] compileNestedQueries(ResultMap resultMap, List<String> columnNames) {
+        Class<?> type = resultMap.getType();
+        List<NestedQuery> nestedQueries = new ArrayList<>();
+        for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+            if (resultMapping.getNestedQueryId() == null) {
+                continue;
+            }
+            String[] properties;
+            int[] columnIndexes;
+            if (resultMapping.isCompositeResult()) {
+                List<ResultMapping> composites = resultMapping.getComposites();
+                properties = new String[composites.size()];
+                columnIndexes = new int[composites.size()];
+                for (int i = 0; i < composites.size(); i++) {
+                    properties[i] = composites.get(i).getProperty();
+                    columnIndexes[i] = indexOf(columnNames, composites.get(i).getColumn());
+                }
+            } else {
+                properties = null;
+                columnIndexes = new int[]{indexOf(columnNames, resultMapping.getColumn())};
+            }
+            Class<?> propertyType = propertyAccessorFactory.getSetterType(type, resultMapping.getProperty());
+            nestedQueries.add(new NestedQuery(resultMapping.getNestedQueryId(), properties, columnIndexes,
+                    propertyAccessorFactory.getSetter(type, resultMapping.getProperty()), propertyType, objectFactory));
+        }
+        return nestedQueries.toArray(new NestedQuery[0]);
+    }
+
+    private NestedRowMapper compileNested(ResultMap resultMap, List<String> columnNames, String columnPrefix, boolean root, Set<String> ancestors) {
+        Class<?> type = resultMap.getType();
+        ancestors.add(resultMap.getId());
+        List<ResultMapping> columnMappings = new ArrayList<>();
+        List<ResultMapping> nestedMappings = new ArrayList<>();
+        for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+            if (resultMapping.getNestedResultMapId() != null) {
+                // circular reference is not mapped
+                if (!ancestors.contains(resultMapping.getNestedResultMapId())) {
+                    nestedMappings.add(resultMapping);
+                }
+            } else if (resultMapping.getColumn() != null && resultMapping.getNestedQueryId() == null
+                    && indexOf(columnNames, prefixed(columnPrefix, resultMapping.getColumn())) >= 0) {
+                // only columns in select list are mapped, same as MyBatis
+                columnMappings.add(resultMapping);
+            }
+        }
+        ColumnValueReader[] readers = new ColumnValueReader[columnMappings.size()];
+        PropertySetter[] setters = new PropertySetter[columnMappings.size()];
+        List<Integer> keyIndexes = new ArrayList<>();
+        for (int i = 0; i < columnMappings.size(); i++) {
+            ResultMapping resultMapping = columnMappings.get(i);
+            readers[i] = columnValueReader(resultMapping, indexOf(columnNames, prefixed(columnPrefix, resultMapping.getColumn())));
+            setters[i] = propertyAccessorFactory.getSetter(type, resultMapping.getProperty());
+            if (resultMap.getIdResultMappings().contains(resultMapping)) {
+                keyIndexes.add(i);
+            }
+        }
+        NestedRowMapper[] nestedMappers = new NestedRowMapper[nestedMappings.size()];
+        PropertySetter[] nestedSetters = new PropertySetter[nestedMappings.size()];
+        Class<?>[] collectionTypes = new Class<?>[nestedMappings.size()];
+        for (int i = 0; i < nestedMappings.size(); i++) {
+            ResultMapping resultMapping = nestedMappings.get(i);
+            ResultMap nestedResultMap = configuration.getResultMap(resultMapping.getNestedResultMapId());
+            nestedMappers[i] = compileNested(nestedResultMap, columnNames, prefixed(columnPrefix, resultMapping.getColumnPrefix()), false, new HashSet<>(ancestors));
+            nestedSetters[i] = propertyAccessorFactory.getSetter(type, resultMapping.getProperty());
+            Class<?> propertyType = propertyAccessorFactory.getSetterType(type, resultMapping.getProperty());
+            if (Collection.class.isAssignableFrom(propertyType)) {
+                collectionTypes[i] = propertyType;
+            }
+        }
+        return new NestedRowMapper(type, objectFactory, root, readers, setters, keyIndexes.stream().mapToInt(Integer::intValue).toArray(),
+                nestedMappers, nestedSetters, collectionTypes, autoMapping(resultMap, columnNames, columnPrefix, true));
+    }
+
+    private static String prefixed(String columnPrefix, String column) {
+        if (columnPrefix == null) {
+            return column;
+        } else if (column == null) {
+            return columnPrefix;
+        }
+        return columnPrefix + column;
+    }
+
+    private RowMapper<?> compile(ResultMap resultMap, List<String> columnNames) {
+        Class<?> type = resultMap.getType();
+        if (NUMBER_TYPES.contains(type)) {
+            return numberRowMapper(type);
+        } else if (typeHandlerRegistry.hasTypeHandler(type)) {
+            R2DBCTypeHandler<?> mappingTypeHandler = typeHandlerRegistry.getTypeHandler(type);
+            return (row, rowMetadata) -> mappingTypeHandler.getResult(row, 0, rowMetadata);
+        } else if (!resultMap.getConstructorResultMappings().isEmpty() || PropertyAccessorFactory.isRecord(type)) {
+            return constructorRowMapper(resultMap, columnNames);
+        } else if (!resultMap.getResultMappings().isEmpty()) {
+            return pojoRowMapper(resultMap, columnNames);
+        } else if (type.isAssignableFrom(Map.class)) {
+            String[] columns = columnNames.toArray(new String[0]);
+            return (row, rowMetadata) -> {
+                Map<String, Object> result = new HashMap<>();
+                for (int i = 0; i < columns.length; i++) {
+                    result.put(columns[i], row.get(i));
+                }
+                return result;
+            };
+        } else if (type.isAssignableFrom(Collection.class)) {
+            int columnCount = columnNames.size();
+            return (row, rowMetadata) -> {
+                List<Object> result = new ArrayList<>(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    result.add(row.get(i));
+                }
+                return result;
+            };
+        } else if (!configuration.getTypeHandlerRegistry().hasTypeHandler(type)) {
+            // resultType without mappings
+            return pojoRowMapper(resultMap, columnNames);
+        } else {
+            return (row, rowMetadata) -> row.get(0, type);
+        }
+    }
+
+    /**
+     * integral columns are stored as long, floating columns as double, and other columns are read by R2DBC type handler or driver
+     */
+    private ColumnBatchLayout compileColumnBatch(ResultMap resultMap, RowMetadata rowMetadata, List<String> columnNames) {
+        Class<?>[] columnTypes = new Class<?>[columnNames.size()];
+        ColumnValueReader[] readers = new ColumnValueReader[columnNames.size()];
+        for (int i = 0; i < columnNames.size(); i++) {
+            String column = columnNames.get(i);
+            ResultMapping resultMapping = null;
+            for (ResultMapping mapping : resultMap.getResultMappings()) {
+                if (column.equalsIgnoreCase(mapping.getColumn())) {
+                    resultMapping = mapping;
+                    break;
+                }
+            }
+            Class<?> javaType = resultMapping != null ? resultMapping.getJavaType() : rowMetadata.getColumnMetadata(i).getJavaType();
+            if (javaType == null && columnNames.size() == 1 && NUMBER_TYPES.contains(resultMap.getType())) {
+                javaType = resultMap.getType();
+            }
+            if (javaType == null) {
+                javaType = Object.class;
+            }
+            javaType = boxed(javaType);
+            final int columnIndex = i;
+            if (javaType == Long.class || javaType == Integer.class || javaType == Short.class || javaType == Byte.class) {
+                columnTypes[i] = long.class;
+                readers[i] = (row, metadata) -> row.get(columnIndex);
+            } else if (javaType == Double.class || javaType == Float.class) {
+                columnTypes[i] = double.class;
+                readers[i] = (row, metadata) -> row.get(columnIndex);
+            } else {
+                columnTypes[i] = Object.class;
+                readers[i] = columnValueReader(javaType, resultMapping == null ? null : resultMapping.getTypeHandler(), column, i);
+            }
+        }
+        return new ColumnBatchLayout(columnNames, columnTypes, readers);
+    }
+
+    /**
+     * number conversion is chosen once for the result type, and the column value is returned as is when it has the same type
+     */
+    private RowMapper<?> numberRowMapper(Class<?> type) {
+        if (type.equals(Byte.class) || type.equals(byte.class)) {
+            return (row, rowMetadata) -> {
+                Object value = row.get(0);
+                return value == null || value instanceof Byte ? value : ((Number) value).byteValue();
+            };
+        } else if (type.equals(Short.class) || type.equals(short.class)) {
+            return (row, rowMetadata) -> {
+                Object value = row.get(0);
+                return value == null || value instanceof Short ? value : ((Number) value).shortValue();
+            };
+        } else if (type.equals(Integer.class) || type.equals(int.class)) {
+            return (row, rowMetadata) -> {
+                Object value = row.get(0);
+                return value == null || value instanceof Integer ? value : ((Number) value).intValue();
+            };
+        } else if (type.equals(Long.class) || type.equals(long.class)) {
+            return (row, rowMetadata) -> {
+                Object value = row.get(0);
+                return value == null || value instanceof Long ? value : ((Number) value).longValue();
+            };
+        } else if (type.equals(Float.class) || type.equals(float.class)) {
+            return (row, rowMetadata) -> {
+                Object value = row.get(0);
+                return value == null || value instanceof Float ? value : ((Number) value).floatValue();
+            };
+        } else {
+            return (row, rowMetadata) -> {
+                Object value = row.get(0);
+                return value == null || value instanceof Double ? value : ((Number) value).doubleValue();
+            };
+        }
+    }
+
+    private RowMapper<?> pojoRowMapper(ResultMap resultMap, List<String> columnNames) {
+        Class<?> type = resultMap.getType();
+        List<ResultMapping> resultMappings = new ArrayList<>();
+        for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+            // nested selects are set by nested query mapping function
+            if (resultMapping.getNestedQueryId() == null && resultMapping.getNestedResultMapId() == null) {
+                resultMappings.add(resultMapping);
+            }
+        }
+        int size = resultMappings.size();
+        ColumnValueReader[] readers = new ColumnValueReader[size];
+        PropertySetter[] setters = new PropertySetter[size];
+        for (int i = 0; i < size; i++) {
+            ResultMapping resultMapping = resultMappings.get(i);
+            readers[i] = columnValueReader(resultMapping, indexOf(columnNames, resultMapping.getColumn()));
+            setters[i] = propertyAccessorFactory.getSetter(type, resultMapping.getProperty());
+        }
+        AutoMapping autoMapping = autoMapping(resultMap, columnNames, null, false);
+        return (row, rowMetadata) -> {
+            Object object = objectFactory.create(type);
+            for (int i = 0; i < size; i++) {
+                setters[i].set(object, readers[i].read(row, rowMetadata));
+            }
+            autoMapping.apply(object, row, rowMetadata);
+            return object;
+        };
+    }
+
+    /**
+     * auto mapping for columns without result mapping, and column to property resolution is done once for the column layout
+     *
+     * @param resultMap    result map
+     * @param columnNames  column names
+     * @param columnPrefix column prefix of nested result map
+     * @param nested       nested result map or not
+     * @return auto mapping
+     */
+    private AutoMapping autoMapping(ResultMap resultMap, List<String> columnNames, String columnPrefix, boolean nested) {
+        List<ColumnValueReader> readers = new ArrayList<>();
+        List<PropertySetter> setters = new ArrayList<>();
+        if (shouldApplyAutomaticMappings(resultMap, nested)) {
+            Class<?> type = resultMap.getType();
+            boolean mapType = Map.class.isAssignableFrom(type);
+            MetaClass metaClass = mapType ? null : MetaClass.forClass(type, configuration.getReflectorFactory());
+            for (int i = 0; i < columnNames.size(); i++) {
+                String column = columnNames.get(i);
+                String propertyName = column;
+                if (columnPrefix != null) {
+                    if (!column.toUpperCase(Locale.ENGLISH).startsWith(columnPrefix.toUpperCase(Locale.ENGLISH))) {
+                        continue;
+                    }
+                    propertyName = column.substring(columnPrefix.length());
+                }
+                if (resultMap.getMappedColumns().contains(propertyName.toUpperCase(Locale.ENGLISH))) {
+                    continue;
+                }
+                String property = propertyName;
+                Class<?> propertyType = Object.class;
+                if (!mapType) {
+                    property = metaClass.findProperty(propertyName, configuration.isMapUnderscoreToCamelCase());
+                    if (property == null || !metaClass.hasSetter(property) || resultMap.getMappedProperties().contains(property)) {
+                        continue;
+                    }
+                    propertyType = metaClass.getSetterType(property);
+                    if (!typeHandlerRegistry.hasTypeHandler(propertyType) && !configuration.getTypeHandlerRegistry().hasTypeHandler(propertyType)) {
+                        continue;
+                    }
+                }
+                // drivers only decode to boxed types, and null is skipped for primitive property
+                readers.add(columnValueReader(boxed(propertyType), null, column, i));
+                setters.add(propertyAccessorFactory.getSetter(type, property));
+            }
+        }
+        return new AutoMapping(readers.toArray(new ColumnValueReader[0]), setters.toArray(new PropertySetter[0]));
+    }
+
+    /**
+     * same as MyBatis DefaultResultSetHandler: autoMapping attribute of result map first, then AutoMappingBehavior,
+     * and nested result maps are auto mapped only with FULL behavior
+     */
+    private boolean shouldApplyAutomaticMappings(ResultMap resultMap, boolean nested) {
+        if (resultMap.getAutoMapping() != null) {
+            return resultMap.getAutoMapping();
+        } else if (nested) {
+            return AutoMappingBehavior.FULL == configuration.getAutoMappingBehavior();
+        } else {
+            return AutoMappingBehavior.NONE != configuration.getAutoMappingBehavior();
+        }
+    }
+
+    /**
+     * create object with constructor args from columns, and the other property mappings are applied with setters
+     */
+    private RowMapper<?> constructorRowMapper(ResultMap resultMap, List<String> columnNames) {
+        Class<?> type = resultMap.getType();
+        Constructor<?> constructor;
+        ColumnValueReader[] argReaders;
+        List<ResultMapping> propertyMappings = new ArrayList<>();
+        if (!resultMap.getConstructorResultMappings().isEmpty()) {
+            List<ResultMapping> argMappings = resultMap.getConstructorResultMappings();
+            constructor = findConstructor(type, argMappings);
+            argReaders = new ColumnValueReader[argMappings.size()];
+            for (int i = 0; i < argMappings.size(); i++) {
+                ResultMapping argMapping = argMappings.get(i);
+                // drivers only decode to boxed types, and null for primitive argument is replaced by default value
+                Class<?> javaType = argMapping.getJavaType() == null ? null : boxed(argMapping.getJavaType());
+                argReaders[i] = columnValueReader(javaType, argMapping.getTypeHandler(), argMapping.getColumn(), indexOf(columnNames, argMapping.getColumn()));
+            }
+            for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+                if (resultMapping.getNestedQueryId() == null && resultMapping.getNestedResultMapId() == null) {
+                    propertyMappings.add(resultMapping);
+                }
+            }
+        } else {
+            // canonical constructor of record, and the column is from result mapping or component name
+            Map<String, Class<?>> components = PropertyAccessorFactory.getRecordComponents(type);
+            try {
+                constructor = type.getDeclaredConstructor(components.values().toArray(new Class<?>[0]));
+            } catch (NoSuchMethodException e) {
+                throw new ReflectionException("Canonical constructor not found for record " + type.getName(), e);
+            }
+            argReaders = new ColumnValueReader[components.size()];
+            int i = 0;
+            for (Map.Entry<String, Class<?>> component : components.entrySet()) {
+                String column = component.getKey();
+                for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+                    if (column.equals(resultMapping.getProperty()) && resultMapping.getColumn() != null) {
+                        column = resultMapping.getColumn();
+                    }
+                }
+                int columnIndex = indexOf(columnNames, column);
+                if (columnIndex < 0) {
+                    columnIndex = indexOfIgnoreUnderscore(columnNames, column);
+                }
+                argReaders[i++] = columnIndex < 0 ? (row, rowMetadata) -> null : columnValueReader(boxed(component.getValue()), null, column, columnIndex);
+            }
+        }
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] defaultValues = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            defaultValues[i] = PRIMITIVE_DEFAULTS.get(parameterTypes[i]);
+        }
+        ObjectConstructor objectConstructor = propertyAccessorFactory.getConstructor(constructor);
+        int size = propertyMappings.size();
+        ColumnValueReader[] readers = new ColumnValueReader[size];
+        PropertySetter[] setters = new PropertySetter[size];
+        for (int i = 0; i < size; i++) {
+            ResultMapping resultMapping = propertyMappings.get(i);
+            readers[i] = columnValueReader(resultMapping, indexOf(columnNames, resultMapping.getColumn()));
+            setters[i] = propertyAccessorFactory.getSetter(type, resultMapping.getProperty());
+        }
+        int argCount = argReaders.length;
+        AutoMapping autoMapping = PropertyAccessorFactory.isRecord(type) ? new AutoMapping(new ColumnValueReader[0], new PropertySetter[0])
+                : autoMapping(resultMap, columnNames, null, false);
+        return (row, rowMetadata) -> {
+            Object[] args = new Object[argCount];
+            for (int i = 0; i < argCount; i++) {
+                Object value = argReaders[i].read(row, rowMetadata);
+                args[i] = value == null ? defaultValues[i] : value;
+            }
+            Object object = objectConstructor.newInstance(args);
+            for (int i = 0; i < size; i++) {
+                setters[i].set(object, readers[i].read(row, rowMetadata));
+            }
+            autoMapping.apply(object, row, rowMetadata);
+            return object;
+        };
+    }
+
+    /**
+     * constructor with the same parameter types as constructor args, or the only constructor with the same parameter count
+     */
+    private static Constructor<?> findConstructor(Class<?> type, List<ResultMapping> argMappings) {
+        List<Constructor<?>> candidates = new ArrayList<>();
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if (parameterTypes.length != argMappings.size()) {
+                continue;
+            }
+            boolean matched = true;
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> javaType = argMappings.get(i).getJavaType();
+                if (javaType != null && !boxed(parameterTypes[i]).isAssignableFrom(boxed(javaType))) {
+                    matched = false;
+                    break;
+                }
+            }
+            if (matched) {
+                return constructor;
+            }
+            candidates.add(constructor);
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        throw new ReflectionException("No constructor found in " + type.getName() + " matching " + argMappings.size() + " constructor args");
+    }
+
+    private ColumnValueReader columnValueReader(ResultMapping resultMapping, int columnIndex) {
+        Class<?> javaType = resultMapping.getJavaType() == null ? null : boxed(resultMapping.getJavaType());
+        return columnValueReader(javaType, resultMapping.getTypeHandler(), resultMapping.getColumn(), columnIndex);
+    }
+
+    private ColumnValueReader columnValueReader(Class<?> javaType, TypeHandler<?> typeHandler, String column, int columnIndex) {
+        R2DBCTypeHandler<?> r2dbcTypeHandler = null;
+        if (typeHandler instanceof R2DBCTypeHandler) {
+            r2dbcTypeHandler = (R2DBCTypeHandler<?>) typeHandler;
+        } else if (typeHandlerRegistry.hasTypeHandler(javaType)) {
+            r2dbcTypeHandler = typeHandlerRegistry.getTypeHandler(javaType);
+        }
+        final R2DBCTypeHandler<?> handler = r2dbcTypeHandler;
+        if (columnIndex < 0) {
+            // column not found in metadata, let driver resolve it by name
+            if (handler != null) {
+                return (row, rowMetadata) -> handler.getResult(row, column, rowMetadata);
+            }
+            return (row, rowMetadata) -> row.get(column, javaType);
+        }
+        if (handler != null) {
+            return (row, rowMetadata) -> handler.getResult(row, columnIndex, rowMetadata);
+        }
+        return (row, rowMetadata) -> row.get(columnIndex, javaType);
+    }
+
+    private static int indexOfIgnoreUnderscore(List<String> columnNames, String property) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (columnNames.get(i).replace("_", "").equalsIgnoreCase(property)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (type.isPrimitive()) {
+            return PRIMITIVE_DEFAULTS.get(type).getClass();
+        }
+        return type;
+    }
+
+    private static int indexOf(List<String> columnNames, String column) {
+        if (column != null) {
+            for (int i = 0; i < columnNames.size(); i++) {
+                if (columnNames.get(i).equalsIgnoreCase(column)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> columnNames(RowMetadata rowMetadata) {
+        List<String> columnNames = new ArrayList<>();
+        for (ColumnMetadata columnMetadata : rowMetadata.getColumnMetadatas()) {
+            columnNames.add(columnMetadata.getName());
+        }
+        return columnNames;
+    }
+
+    @FunctionalInterface
+    interface ColumnValueReader {
+        Object read(Row row, RowMetadata rowMetadata);
+    }
+
+    /**
+     * auto mapped columns and property setters, and null value is not set
+     */
+    static class AutoMapping {
+        private final ColumnValueReader[] readers;
+        private final PropertySetter[] setters;
+
+        AutoMapping(ColumnValueReader[] readers, PropertySetter[] setters) {
+            this.readers = readers;
+            this.setters = setters;
+        }
+
+        void apply(Object target, Row row, RowMetadata rowMetadata) {
+            for (int i = 0; i < readers.length; i++) {
+                Object value = readers[i].read(row, rowMetadata);
+                if (value != null) {
+                    setters[i].set(target, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * column names, storage types and readers of column batch
+     */
+    static class ColumnBatchLayout {
+        final List<String> columnNames;
+        final Class<?>[] columnTypes;
+        final ColumnValueReader[] readers;
+
+        ColumnBatchLayout(List<String> columnNames, Class<?>[] columnTypes, ColumnValueReader[] readers) {
+            this.columnNames = Collections.unmodifiableList(columnNames);
+            this.columnTypes = columnTypes;
+            this.readers = readers;
+        }
+    }
+
+    /**
+     * nested select of association or collection property
+     */
+    private static class NestedQuery {
+        private final String statementId;
+        private final String[] properties;
+        private final int[] columnIndexes;
+        private final PropertySetter setter;
+        private final Class<?> propertyType;
+        private final ObjectFactory objectFactory;
+
+        NestedQuery(String statementId, String[] properties, int[] columnIndexes, PropertySetter setter, Class<?> propertyType, ObjectFactory objectFactory) {
+            this.statementId = statementId;
+            this.properties = properties;
+            this.columnIndexes = columnIndexes;
+            this.setter = setter;
+            this.propertyType = propertyType;
+            this.objectFactory = objectFactory;
+        }
+
+        /**
+         * set deferred nested select for Mono or Flux property, or return nested select which sets property for other types
+         */
+        Mono<?> apply(Object target, Row row, NestedQueryLoader loader) {
+            Object parameter = parameter(row);
+            if (Mono.class.isAssignableFrom(propertyType)) {
+                setter.set(target, parameter == null ? Mono.empty() : Mono.defer(() -> loader.load(statementId, parameter, false)));
+                return null;
+            } else if (Publisher.class.isAssignableFrom(propertyType)) {
+                setter.set(target, parameter == null ? Flux.empty() : Flux.defer(() -> loader.load(statementId, parameter, true))
+                        .flatMapIterable(rows -> (List<Object>) rows));
+                return null;
+            } else if (Collection.class.isAssignableFrom(propertyType)) {
+                Collection<Object> collection = (Collection<Object>) objectFactory.create(propertyType);
+                setter.set(target, collection);
+                return parameter == null ? null : loader.load(statementId, parameter, true)
+                        .doOnNext(rows -> collection.addAll((List<Object>) rows));
+            }
+            return parameter == null ? null : loader.load(statementId, parameter, false)
+                    .doOnNext(value -> setter.set(target, value));
+        }
+
+        private Object parameter(Row row) {
+            if (properties == null) {
+                return columnIndexes[0] < 0 ? null : row.get(columnIndexes[0]);
+            }
+            Map<String, Object> parameter = new HashMap<>();
+            boolean found = false;
+            for (int i = 0; i < properties.length; i++) {
+                Object value = columnIndexes[i] < 0 ? null : row.get(columnIndexes[i]);
+                parameter.put(properties[i], value);
+                found |= value != null;
+            }
+            return found ? parameter : null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.apache.ibatis.r2dbc.metrics;
+
+import io.r2dbc.pool.PoolMetrics;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Metrics recorder SPI: statement timers, rows, bind and mapping time, connection acquire time and pool gauges.
+ * Implementations, such as Micrometer adapter, are configured by metrics.recorder property or ServiceLoader,
+ * and all methods should be cheap and non-blocking because they are called on reactive threads.
+ *
+ * @author linux_china
+ */
+public interface MetricsRecorder {
+    MetricsRecorder NOOP = new MetricsRecorder() {
+    };
+
+    /**
+     * statement execution from subscription to termination, including connection acquire, bind, database and mapping time
+     *
+     * @param statementId statement id
+     * @param nanos       elapsed nanoseconds
+     * @param success     false if terminated with error
+     */
+    default void recordStatement(String statementId, long nanos, boolean success) {
+    }
+
+    /**
+     * statement cancelled by subscriber before termination, such as take(n) or timeout, and it is not recorded by recordStatement
+     *
+     * @param statementId statement id
+     * @param nanos       elapsed nanoseconds until cancellation
+     */
+    default void recordStatementCancelled(String statementId, long nanos) {
+    }
+
+    default void recordRowsReturned(String statementId, long rows) {
+    }
+
+    default void recordRowsUpdated(String statementId, long rows) {
+    }
+
+    /**
+     * parameter binding time of one execution
+     */
+    default void recordBindTime(String statementId, long nanos) {
+    }
+
+    /**
+     * row mapping time of one result
+     *
+     * @param statementId statement id
+     * @param nanos       total mapping nanoseconds of rows
+     * @param rows        mapped rows
+     */
+    default void recordMappingTime(String statementId, long nanos, long rows) {
+    }
+
+    /**
+     * wait time to acquire connection from connection factory or pool
+     */
+    default void recordConnectionAcquireTime(long nanos, boolean success) {
+    }
+
+    /**
+     * bind pool metrics for gauges, such as acquired, idle and pending connections
+     */
+    default void bindPoolMetrics(PoolMetrics poolMetrics) {
+    }
+
+    /**
+     * create recorder from metrics.recorder property with class name, or the first recorder from ServiceLoader
+     *
+     * @param configuration configuration
+     * @return recorder, NOOP if not configured
+     */
+    static MetricsRecorder forConfiguration(Configuration configuration) {
+        String className = configuration.getVariables().getProperty("metrics.recorder");
+        if (className != null) {
+            try {
+                return (MetricsRecorder) Class.forName(className).getDeclaredConstructor().newInstance();
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Failed to create metrics recorder: " + className, e);
+            }
+        }
+        Iterator<MetricsRecorder> recorders = ServiceLoader.load(MetricsRecorder.class).iterator();
+        return recorders.hasNext() ? recorders.next() : NOOP;
+    }
+}
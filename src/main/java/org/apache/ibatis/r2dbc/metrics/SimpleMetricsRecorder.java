@@ -0,0 +1,200 @@
+package org.apache.ibatis.r2dbc.metrics;
+
+import io.r2dbc.pool.PoolMetrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In memory metrics recorder with per-statement timers and power of two histograms
+ *
+ * @author linux_china
+ */
+public class SimpleMetricsRecorder implements MetricsRecorder {
+    private final Map<String, StatementMetrics> statementMetrics = new ConcurrentHashMap<>();
+    private final Timer connectionAcquireTimer = new Timer();
+    private final LongAdder connectionAcquireErrors = new LongAdder();
+    private volatile PoolMetrics poolMetrics;
+
+    @Override
+    public void recordStatement(String statementId, long nanos, boolean success) {
+        StatementMetrics metrics = getStatementMetrics(statementId);
+        metrics.executionTimer.record(nanos);
+        if (!success) {
+            metrics.errors.increment();
+        }
+    }
+
+    @Override
+    public void recordStatementCancelled(String statementId, long nanos) {
+        getStatementMetrics(statementId).cancels.increment();
+    }
+
+    @Override
+    public void recordRowsReturned(String statementId, long rows) {
+        getStatementMetrics(statementId).rowsReturned.add(rows);
+    }
+
+    @Override
+    public void recordRowsUpdated(String statementId, long rows) {
+        getStatementMetrics(statementId).rowsUpdated.add(rows);
+    }
+
+    @Override
+    public void recordBindTime(String statementId, long nanos) {
+        getStatementMetrics(statementId).bindTimer.record(nanos);
+    }
+
+    @Override
+    public void recordMappingTime(String statementId, long nanos, long rows) {
+        StatementMetrics metrics = getStatementMetrics(statementId);
+        metrics.mappingTimer.record(nanos);
+        metrics.rowsMapped.add(rows);
+    }
+
+    @Override
+    public void recordConnectionAcquireTime(long nanos, boolean success) {
+        connectionAcquireTimer.record(nanos);
+        if (!success) {
+            connectionAcquireErrors.increment();
+        }
+    }
+
+    @Override
+    public void bindPoolMetrics(PoolMetrics poolMetrics) {
+        this.poolMetrics = poolMetrics;
+    }
+
+    public StatementMetrics getStatementMetrics(String statementId) {
+        return statementMetrics.computeIfAbsent(statementId, id -> new StatementMetrics());
+    }
+
+    public Map<String, StatementMetrics> getStatementMetrics() {
+        return Collections.unmodifiableMap(statementMetrics);
+    }
+
+    public Timer getConnectionAcquireTimer() {
+        return connectionAcquireTimer;
+    }
+
+    public long getConnectionAcquireErrors() {
+        return connectionAcquireErrors.sum();
+    }
+
+    /**
+     * @return pool metrics, null if connection factory is not a pool
+     */
+    public PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
+    public static class StatementMetrics {
+        private final Timer executionTimer = new Timer();
+        private final Timer bindTimer = new Timer();
+        private final Timer mappingTimer = new Timer();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder cancels = new LongAdder();
+        private final LongAdder rowsReturned = new LongAdder();
+        private final LongAdder rowsUpdated = new LongAdder();
+        private final LongAdder rowsMapped = new LongAdder();
+
+        public Timer getExecutionTimer() {
+            return executionTimer;
+        }
+
+        public Timer getBindTimer() {
+            return bindTimer;
+        }
+
+        /**
+         * @return mapping timer, and one record is the mapping time of one result
+         */
+        public Timer getMappingTimer() {
+            return mappingTimer;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * @return cancelled executions, which are not counted by execution timer
+         */
+        public long getCancels() {
+            return cancels.sum();
+        }
+
+        public long getRowsReturned() {
+            return rowsReturned.sum();
+        }
+
+        public long getRowsUpdated() {
+            return rowsUpdated.sum();
+        }
+
+        /**
+         * @return rows mapped by row mapper, and mapping timer total divided by it is the mapping time per row
+         */
+        public long getRowsMapped() {
+            return rowsMapped.sum();
+        }
+    }
+
+    /**
+     * timer with count, total, max and histogram: bucket n counts durations in [2^(n-1), 2^n) nanoseconds
+     */
+    public static class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            count.increment();
+            totalNanos.add(value);
+            maxNanos.accumulate(value);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * @param percentile percentile between 0 and 1, such as 0.99
+         * @return upper bound of the histogram bucket that contains the percentile, and not greater than max
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= Math.max(rank, 1)) {
+                    // (1 << 63) - 1 is Long.MAX_VALUE
+                    return Math.min((1L << i) - 1, getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+    }
+}
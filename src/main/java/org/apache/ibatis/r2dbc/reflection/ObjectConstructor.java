@@ -0,0 +1,12 @@
+package org.apache.ibatis.r2dbc.reflection;
+
+/**
+ * Object constructor
+ *
+ * @author linux_china
+ */
+@FunctionalInterface
+public interface ObjectConstructor {
+
+    Object newInstance(Object[] args);
+}
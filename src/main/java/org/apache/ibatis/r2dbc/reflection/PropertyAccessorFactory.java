@@ -0,0 +1,261 @@
+package org.apache.ibatis.r2dbc.reflection;
+
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.session.Configuration;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Property accessor factory: create getter and setter functions with LambdaMetafactory once per class and property,
+ * and fall back to MyBatis MetaObject for nested properties or members without accessible methods.
+ * Constructors are invoked with spread MethodHandle.
+ *
+ * @author linux_china
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class PropertyAccessorFactory {
+    private static final int ALLOWED_MODES = MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED
+            | MethodHandles.Lookup.PACKAGE | MethodHandles.Lookup.PUBLIC;
+    private static final Constructor<MethodHandles.Lookup> lookupConstructor;
+    private static final Method privateLookupInMethod;
+    private final Configuration configuration;
+    private final Map<Class<?>, Map<String, PropertyGetter>> getterCache = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<String, PropertySetter>> setterCache = new ConcurrentHashMap<>();
+    private final Map<Constructor<?>, ObjectConstructor> constructorCache = new ConcurrentHashMap<>();
+
+    static {
+        Method privateLookupIn;
+        try {
+            privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException e) {
+            privateLookupIn = null;
+        }
+        privateLookupInMethod = privateLookupIn;
+        Constructor<MethodHandles.Lookup> lookup = null;
+        if (privateLookupInMethod == null) {
+            // JDK 1.8
+            try {
+                lookup = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+                lookup.setAccessible(true);
+            } catch (Exception e) {
+                lookup = null;
+            }
+        }
+        lookupConstructor = lookup;
+    }
+
+    public PropertyAccessorFactory(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    public PropertyGetter getGetter(Class<?> type, String property) {
+        return getterCache.computeIfAbsent(type, clazz -> new ConcurrentHashMap<>())
+                .computeIfAbsent(property, name -> createGetter(type, name));
+    }
+
+    public PropertySetter getSetter(Class<?> type, String property) {
+        return setterCache.computeIfAbsent(type, clazz -> new ConcurrentHashMap<>())
+                .computeIfAbsent(property, name -> createSetter(type, name));
+    }
+
+    public ObjectConstructor getConstructor(Constructor<?> constructor) {
+        return constructorCache.computeIfAbsent(constructor, PropertyAccessorFactory::createConstructor);
+    }
+
+    /**
+     * record check without Java 16 API
+     *
+     * @param type class
+     * @return record or not
+     */
+    public static boolean isRecord(Class<?> type) {
+        Class<?> superclass = type.getSuperclass();
+        return superclass != null && "java.lang.Record".equals(superclass.getName());
+    }
+
+    /**
+     * record components in declaration order, same as the parameters of canonical constructor
+     *
+     * @param type record class
+     * @return component name and type
+     */
+    public static Map<String, Class<?>> getRecordComponents(Class<?> type) {
+        Map<String, Class<?>> components = new LinkedHashMap<>();
+        try {
+            Object[] recordComponents = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+            for (Object recordComponent : recordComponents) {
+                Class<?> componentClass = recordComponent.getClass();
+                String name = (String) componentClass.getMethod("getName").invoke(recordComponent);
+                Class<?> componentType = (Class<?>) componentClass.getMethod("getType").invoke(recordComponent);
+                components.put(name, componentType);
+            }
+        } catch (Exception e) {
+            throw new ReflectionException("Failed to read record components of " + type.getName(), e);
+        }
+        return components;
+    }
+
+    private static ObjectConstructor createConstructor(Constructor<?> constructor) {
+        int parameterCount = constructor.getParameterCount();
+        try {
+            MethodHandle methodHandle = privateLookup(constructor.getDeclaringClass()).unreflectConstructor(constructor)
+                    .asType(MethodType.genericMethodType(parameterCount))
+                    .asSpreader(Object[].class, parameterCount);
+            return args -> {
+                try {
+                    return (Object) methodHandle.invokeExact(args);
+                } catch (Throwable e) {
+                    throw new ReflectionException("Failed to create " + constructor.getDeclaringClass().getName() + ". Cause: " + e, e);
+                }
+            };
+        } catch (Throwable ignore) {
+            // class not visible or not open for deep reflection, use reflection instead
+        }
+        return args -> {
+            try {
+                constructor.setAccessible(true);
+                return constructor.newInstance(args);
+            } catch (Exception e) {
+                throw new ReflectionException("Failed to create " + constructor.getDeclaringClass().getName() + ". Cause: " + e, e);
+            }
+        };
+    }
+
+    public Class<?> getSetterType(Class<?> type, String property) {
+        if (Map.class.isAssignableFrom(type)) {
+            return Object.class;
+        }
+        return MetaClass.forClass(type, configuration.getReflectorFactory()).getSetterType(property);
+    }
+
+    private PropertyGetter createGetter(Class<?> type, String property) {
+        if (isNestedProperty(property)) {
+            return target -> configuration.newMetaObject(target).getValue(property);
+        } else if (Map.class.isAssignableFrom(type)) {
+            return target -> ((Map) target).get(property);
+        }
+        Method getter = findGetter(type, property);
+        if (getter != null) {
+            try {
+                MethodHandles.Lookup lookup = privateLookup(type);
+                MethodHandle methodHandle = lookup.unreflect(getter);
+                CallSite callSite = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(PropertyGetter.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        methodHandle,
+                        MethodType.methodType(boxed(getter.getReturnType()), type));
+                return (PropertyGetter) callSite.getTarget().invoke();
+            } catch (Throwable ignore) {
+                // class not visible or not open for deep reflection, use MetaObject instead
+            }
+        }
+        return target -> configuration.newMetaObject(target).getValue(property);
+    }
+
+    private PropertySetter createSetter(Class<?> type, String property) {
+        if (isNestedProperty(property)) {
+            return (target, value) -> configuration.newMetaObject(target).setValue(property, value);
+        } else if (Map.class.isAssignableFrom(type)) {
+            return (target, value) -> ((Map) target).put(property, value);
+        }
+        Method setter = findSetter(type, property);
+        if (setter != null) {
+            try {
+                MethodHandles.Lookup lookup = privateLookup(type);
+                MethodHandle methodHandle = lookup.unreflect(setter);
+                CallSite callSite = LambdaMetafactory.metafactory(lookup, "set",
+                        MethodType.methodType(PropertySetter.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        methodHandle,
+                        MethodType.methodType(void.class, type, boxed(setter.getParameterTypes()[0])));
+                return (PropertySetter) callSite.getTarget().invoke();
+            } catch (Throwable ignore) {
+                // class not visible or not open for deep reflection, use MetaObject instead
+            }
+        }
+        return (target, value) -> configuration.newMetaObject(target).setValue(property, value);
+    }
+
+    private Method findGetter(Class<?> type, String property) {
+        Reflector reflector = configuration.getReflectorFactory().findForClass(type);
+        if (!reflector.hasGetter(property)) {
+            return null;
+        }
+        Class<?> getterType = reflector.getGetterType(property);
+        for (Method method : type.getMethods()) {
+            String name = method.getName();
+            if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers())
+                    && PropertyNamer.isGetter(name) && property.equals(PropertyNamer.methodToProperty(name))
+                    && method.getReturnType().equals(getterType)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private Method findSetter(Class<?> type, String property) {
+        Reflector reflector = configuration.getReflectorFactory().findForClass(type);
+        if (!reflector.hasSetter(property)) {
+            return null;
+        }
+        Class<?> setterType = reflector.getSetterType(property);
+        for (Method method : type.getMethods()) {
+            String name = method.getName();
+            if (method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())
+                    && PropertyNamer.isSetter(name) && property.equals(PropertyNamer.methodToProperty(name))
+                    && method.getParameterTypes()[0].equals(setterType)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNestedProperty(String property) {
+        return property.indexOf('.') >= 0 || property.indexOf('[') >= 0;
+    }
+
+    private static MethodHandles.Lookup privateLookup(Class<?> type) throws Exception {
+        if (privateLookupInMethod != null) {
+            return (MethodHandles.Lookup) privateLookupInMethod.invoke(null, type, MethodHandles.lookup());
+        } else if (lookupConstructor != null) {
+            return lookupConstructor.newInstance(type, ALLOWED_MODES);
+        }
+        throw new IllegalAccessException("No private lookup available for " + type);
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return type;
+    }
+}
@@ -0,0 +1,12 @@
+package org.apache.ibatis.r2dbc.reflection;
+
+/**
+ * Property getter
+ *
+ * @author linux_china
+ */
+@FunctionalInterface
+public interface PropertyGetter {
+
+    Object get(Object target);
+}
@@ -0,0 +1,12 @@
+package org.apache.ibatis.r2dbc.reflection;
+
+/**
+ * Property setter
+ *
+ * @author linux_china
+ */
+@FunctionalInterface
+public interface PropertySetter {
+
+    void set(Object target, Object value);
+}
@@ -0,0 +1,96 @@
+package org.apache.ibatis.r2dbc.binding;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.apache.ibatis.r2dbc.demo.UserMapper;
+import org.apache.ibatis.r2dbc.impl.DefaultReactiveSqlSession;
+import org.apache.ibatis.r2dbc.impl.MockConnectionFactory;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BatchLoader test
+ *
+ * @author linux_china
+ */
+public class BatchLoaderTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testBatchLoad() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        connectionFactory.rows = sql -> Arrays.asList(new SimpleRow(rowMetadata, 2, "second", LocalDateTime.now()),
+                new SimpleRow(rowMetadata, 1, "first", LocalDateTime.now()));
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        UserMapper userMapper = sqlSession.getMapper(UserMapper.class);
+        List<String> nicks = Flux.just(1, 2, 3, 1)
+                .flatMapSequential(id -> userMapper.loadById(id).map(User::getNick).defaultIfEmpty("none"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(nicks).containsExactly("first", "second", "none", "first");
+        assertThat(connectionFactory.executedSql).hasSize(1);
+        assertThat(connectionFactory.executedSql.get(0)).contains("in");
+        assertThat(connectionFactory.bindings.get(0)).hasSize(3);
+    }
+
+    @Test
+    public void testBatchLoadMany() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        connectionFactory.rows = sql -> Arrays.asList(new SimpleRow(rowMetadata, 1, "first", LocalDateTime.now()),
+                new SimpleRow(rowMetadata, 2, "second", LocalDateTime.now()),
+                new SimpleRow(rowMetadata, 3, "first", LocalDateTime.now()));
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        UserMapper userMapper = sqlSession.getMapper(UserMapper.class);
+        List<List<Integer>> ids = Flux.just("first", "second", "third")
+                .flatMapSequential(nick -> userMapper.loadByNick(nick).map(User::getId).collectList())
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(ids).containsExactly(Arrays.asList(1, 3), Arrays.asList(2), Arrays.asList());
+        assertThat(connectionFactory.executedSql).hasSize(1);
+    }
+
+    @Test
+    public void testBatchLoadWithLongIdColumn() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        connectionFactory.rows = sql -> Arrays.asList(new SimpleRow(rowMetadata, 2L, "second", LocalDateTime.now()),
+                new SimpleRow(rowMetadata, 1L, "first", LocalDateTime.now()));
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        UserMapper userMapper = sqlSession.getMapper(UserMapper.class);
+        List<Object> nicks = Flux.just(1, 2, 3)
+                .flatMapSequential(id -> userMapper.loadMapById(id).map(row -> row.get("nick")).defaultIfEmpty("none"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(nicks).containsExactly("first", "second", "none");
+        assertThat(connectionFactory.executedSql).hasSize(1);
+    }
+
+    @Test
+    public void testBatchLoadInTransaction() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        connectionFactory.rows = sql -> Arrays.asList(new SimpleRow(rowMetadata, 1, "first", LocalDateTime.now()),
+                new SimpleRow(rowMetadata, 2, "second", LocalDateTime.now()));
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        UserMapper userMapper = sqlSession.getMapper(UserMapper.class);
+        List<String> nicks = sqlSession.inTransaction(session -> Flux.just(1, 2)
+                        .flatMapSequential(id -> userMapper.loadById(id).map(User::getNick)))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(nicks).containsExactly("first", "second");
+        assertThat(connectionFactory.executedSql).hasSize(1);
+        assertThat(connectionFactory.created.get()).isEqualTo(1);
+        assertThat(connectionFactory.committed.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,31 @@
+package org.apache.ibatis.r2dbc.binding;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.demo.UserMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ReactiveMapperRegistry test
+ *
+ * @author linux_china
+ */
+public class ReactiveMapperRegistryTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testWarmUp() {
+        ReactiveMapperRegistry mapperRegistry = new ReactiveMapperRegistry(getConfiguration());
+        mapperRegistry.warmUp(getReactiveSqlSession());
+        MapperProxyFactory<UserMapper> mapperProxyFactory = mapperRegistry.getMapperProxyFactory(UserMapper.class);
+        assertThat(mapperProxyFactory.getMethodCache()).hasSize(UserMapper.class.getMethods().length);
+        assertThat(mapperRegistry.getMapperProxyFactory(UserMapper.class)).isSameAs(mapperProxyFactory);
+    }
+
+    @Test
+    public void testMapperCached() {
+        ReactiveSqlSession reactiveSqlSession = getReactiveSqlSession();
+        assertThat(reactiveSqlSession.getMapper(UserMapper.class)).isSameAs(reactiveSqlSession.getMapper(UserMapper.class));
+    }
+}
@@ -0,0 +1,72 @@
+package org.apache.ibatis.r2dbc.cache;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ReactiveStatementCache test
+ *
+ * @author linux_china
+ */
+public class ReactiveStatementCacheTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testQueryAndFlush() {
+        MappedStatement mappedStatement = mappedStatement();
+        ReactiveStatementCache statementCache = new ReactiveStatementCache();
+        AtomicInteger loads = new AtomicInteger();
+        Flux<String> loader = Flux.defer(() -> {
+            loads.incrementAndGet();
+            return Flux.just("first", "second");
+        });
+        CacheKey cacheKey = new CacheKey(new Object[]{mappedStatement.getId(), 1});
+        StepVerifier.create(statementCache.query(mappedStatement, cacheKey, loader)).expectNext("first", "second").verifyComplete();
+        StepVerifier.create(statementCache.query(mappedStatement, cacheKey, loader)).expectNext("first", "second").verifyComplete();
+        assertThat(loads).hasValue(1);
+        statementCache.flush(mappedStatement);
+        StepVerifier.create(statementCache.query(mappedStatement, cacheKey, loader)).expectNextCount(2).verifyComplete();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void testConcurrentMissesShareLoad() {
+        MappedStatement mappedStatement = mappedStatement();
+        ReactiveStatementCache statementCache = new ReactiveStatementCache();
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<String> row = Sinks.one();
+        Flux<String> loader = Flux.defer(() -> {
+            loads.incrementAndGet();
+            return row.asMono().flux();
+        });
+        CacheKey cacheKey = new CacheKey(new Object[]{mappedStatement.getId(), 1});
+        List<String> results = new ArrayList<>();
+        statementCache.query(mappedStatement, cacheKey, loader).subscribe(results::add);
+        statementCache.query(mappedStatement, cacheKey, loader).subscribe(results::add);
+        row.tryEmitValue("shared");
+        assertThat(loads).hasValue(1);
+        assertThat(results).containsExactly("shared", "shared");
+    }
+
+    private MappedStatement mappedStatement() {
+        return new MappedStatement.Builder(getConfiguration(), "cache.findById",
+                new StaticSqlSource(getConfiguration(), "select 1"), SqlCommandType.SELECT)
+                .cache(new PerpetualCache("cache"))
+                .flushCacheRequired(true)
+                .useCache(true)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package org.apache.ibatis.r2dbc.cache;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SingleFlight test
+ *
+ * @author linux_china
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void testShareInFlightExecution() {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger executions = new AtomicInteger();
+        Sinks.Many<Integer> rows = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<Integer> source = Flux.defer(() -> {
+            executions.incrementAndGet();
+            return rows.asFlux();
+        });
+        CacheKey cacheKey = new CacheKey(new Object[]{"findById", 42});
+        List<Integer> first = new ArrayList<>();
+        List<Integer> second = new ArrayList<>();
+        singleFlight.execute(cacheKey, source).subscribe(first::add);
+        rows.tryEmitNext(1);
+        // late subscriber still receives all rows
+        singleFlight.execute(cacheKey, source).subscribe(second::add);
+        rows.tryEmitNext(2);
+        rows.tryEmitComplete();
+        assertThat(executions).hasValue(1);
+        assertThat(first).containsExactly(1, 2);
+        assertThat(second).containsExactly(1, 2);
+        assertThat(singleFlight.getInFlightCount()).isZero();
+    }
+
+    @Test
+    public void testEntryDroppedAfterCompletion() {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger executions = new AtomicInteger();
+        Flux<Integer> source = Flux.defer(() -> Flux.just(executions.incrementAndGet()));
+        CacheKey cacheKey = new CacheKey(new Object[]{"findById", 42});
+        assertThat(singleFlight.execute(cacheKey, source).blockLast()).isEqualTo(1);
+        assertThat(singleFlight.execute(cacheKey, source).blockLast()).isEqualTo(2);
+    }
+}
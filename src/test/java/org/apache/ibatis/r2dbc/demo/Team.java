@@ -0,0 +1,58 @@
+package org.apache.ibatis.r2dbc.demo;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Team with leader and members
+ *
+ * @author linux_china
+ */
+public class Team {
+    private Integer id;
+    private String name;
+    private User leader;
+    private List<User> members;
+    private Mono<User> creator;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public User getLeader() {
+        return leader;
+    }
+
+    public void setLeader(User leader) {
+        this.leader = leader;
+    }
+
+    public List<User> getMembers() {
+        return members;
+    }
+
+    public void setMembers(List<User> members) {
+        this.members = members;
+    }
+
+    public Mono<User> getCreator() {
+        return creator;
+    }
+
+    public void setCreator(Mono<User> creator) {
+        this.creator = creator;
+    }
+}
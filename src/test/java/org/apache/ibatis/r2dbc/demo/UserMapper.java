@@ -3,6 +3,7 @@ package org.apache.ibatis.r2dbc.demo;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.ResultMap;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.r2dbc.annotations.BatchLoad;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -32,6 +33,26 @@ public interface UserMapper {
     @ResultMap("UserResultMap")
     Mono<User> findByNick(@Param("value") String nick);
 
+    @Select("SELECT id, nick, created_at FROM people WHERE id = #{value}")
+    @ResultMap("UserResultMap")
+    @BatchLoad(value = "findByIds", windowMillis = 20)
+    Mono<User> loadById(@Param("value") Integer id);
+
+    Flux<User> findByIds(List<Integer> ids);
+
+    @Select("SELECT id, nick, created_at FROM people WHERE id = #{value}")
+    @BatchLoad(value = "findMapsByIds", windowMillis = 20)
+    Mono<Map<String, Object>> loadMapById(@Param("value") Integer id);
+
+    Flux<Map<String, Object>> findMapsByIds(List<Integer> ids);
+
+    @Select("SELECT id, nick, created_at FROM people WHERE nick = #{value}")
+    @ResultMap("UserResultMap")
+    @BatchLoad(value = "findByNicks", keyProperty = "nick", windowMillis = 20)
+    Flux<User> loadByNick(@Param("value") String nick);
+
+    Flux<User> findByNicks(List<String> nicks);
+
     Flux<User> findAll();
 
     Mono<Long> getAllCount();
@@ -0,0 +1,24 @@
+package org.apache.ibatis.r2dbc.demo;
+
+/**
+ * Immutable user view
+ *
+ * @author linux_china
+ */
+public class UserView {
+    private final int id;
+    private final String nick;
+
+    public UserView(int id, String nick) {
+        this.id = id;
+        this.nick = nick;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getNick() {
+        return nick;
+    }
+}
@@ -0,0 +1,62 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AdmissionController test
+ *
+ * @author linux_china
+ */
+public class AdmissionControllerTest {
+
+    @Test
+    public void testPermitsAndFifoQueue() {
+        AdmissionController admissionController = new AdmissionController(2, Duration.ofSeconds(5), 10);
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        List<String> results = new ArrayList<>();
+        admissionController.admit(2, first.asMono()).subscribe(results::add);
+        admissionController.admit(2, second.asMono()).subscribe(results::add);
+        admissionController.admit(1, Mono.just("third")).subscribe(results::add);
+        assertThat(admissionController.getAvailablePermits()).isEqualTo(0);
+        assertThat(admissionController.getQueueSize()).isEqualTo(2);
+        first.tryEmitValue("first");
+        // second is at queue head, third must wait behind it
+        assertThat(results).containsExactly("first");
+        assertThat(admissionController.getQueueSize()).isEqualTo(1);
+        second.tryEmitValue("second");
+        assertThat(results).containsExactly("first", "second", "third");
+        assertThat(admissionController.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRejectOnDeadline() {
+        AdmissionController admissionController = new AdmissionController(1, Duration.ofMillis(50), 10);
+        Sinks.One<String> holder = Sinks.one();
+        admissionController.admit(1, holder.asMono()).subscribe();
+        StepVerifier.create(admissionController.admit(1, Mono.just("late")))
+                .verifyError(R2dbcTransientResourceException.class);
+        assertThat(admissionController.getQueueSize()).isEqualTo(0);
+        assertThat(admissionController.getRejectedCount()).isEqualTo(1);
+        holder.tryEmitValue("done");
+        assertThat(admissionController.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRejectOnFullQueue() {
+        AdmissionController admissionController = new AdmissionController(1, Duration.ofSeconds(5), 0);
+        admissionController.admit(1, Sinks.<String>one().asMono()).subscribe();
+        StepVerifier.create(admissionController.admit(1, Mono.just("rejected")))
+                .verifyError(R2dbcTransientResourceException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batch execution test
+ *
+ * @author linux_china
+ */
+public class BatchExecutionTest extends MyBatisBaseTestSupport {
+    private static final String UPDATE_STATEMENT = "org.apache.ibatis.r2dbc.demo.UserMapper.update";
+
+    @Test
+    public void testBatchUpdate() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.batchUpdate(UPDATE_STATEMENT, Arrays.asList(new User(1, "first"), new User(2, "second"), new User(3, "third"))))
+                .expectNext(1, 1, 1)
+                .verifyComplete();
+        assertThat(connectionFactory.created).hasValue(1);
+        assertThat(connectionFactory.closed).hasValue(1);
+        assertThat(connectionFactory.executedSql).hasSize(1);
+        assertThat(connectionFactory.bindings).hasSize(3);
+        assertThat(connectionFactory.bindings.get(2)).containsEntry(0, "third").containsEntry(1, 3);
+    }
+
+    @Test
+    public void testStreamingBatchUpdate() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        Flux<User> users = Flux.range(1, 10).map(id -> new User(id, "nick" + id));
+        StepVerifier.create(sqlSession.batchUpdate(UPDATE_STATEMENT, users, 4, 2))
+                .expectNextCount(10)
+                .verifyComplete();
+        assertThat(connectionFactory.created).hasValue(3);
+        assertThat(connectionFactory.closed).hasValue(3);
+        assertThat(connectionFactory.executedSql).hasSize(3);
+        assertThat(connectionFactory.bindings).hasSize(10);
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.batchUpdate(UPDATE_STATEMENT, Collections.emptyList()))
+                .verifyComplete();
+        assertThat(connectionFactory.created).hasValue(0);
+    }
+}
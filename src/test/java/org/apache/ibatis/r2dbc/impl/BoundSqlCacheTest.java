@@ -0,0 +1,80 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BoundSql cache test
+ *
+ * @author linux_china
+ */
+public class BoundSqlCacheTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testDynamicBranches() {
+        BoundSqlCache boundSqlCache = new BoundSqlCache(getConfiguration(), 256);
+        MappedStatement mappedStatement = getConfiguration().getMappedStatement("org.apache.ibatis.r2dbc.demo.UserMapper.dynamicFindExample");
+        BoundSql first = boundSqlCache.getBoundSql(mappedStatement, new User(1, "first"));
+        BoundSql second = boundSqlCache.getBoundSql(mappedStatement, new User(2, "second"));
+        BoundSql nickOnly = boundSqlCache.getBoundSql(mappedStatement, new User(null, "nick"));
+        assertSameBoundSql(first, mappedStatement.getBoundSql(new User(1, "first")));
+        assertSameBoundSql(nickOnly, mappedStatement.getBoundSql(new User(null, "nick")));
+        // parsed once for the same branches
+        assertThat(second.getParameterMappings()).isSameAs(first.getParameterMappings());
+        assertThat(nickOnly.getParameterMappings()).isNotSameAs(first.getParameterMappings()).hasSize(1);
+    }
+
+    @Test
+    public void testForeach() {
+        BoundSqlCache boundSqlCache = new BoundSqlCache(getConfiguration(), 256);
+        MappedStatement mappedStatement = getConfiguration().getMappedStatement("org.apache.ibatis.r2dbc.demo.UserMapper.findByIds");
+        BoundSql first = boundSqlCache.getBoundSql(mappedStatement, ids(1, 2));
+        BoundSql second = boundSqlCache.getBoundSql(mappedStatement, ids(3, 4));
+        BoundSql single = boundSqlCache.getBoundSql(mappedStatement, ids(5));
+        assertSameBoundSql(second, mappedStatement.getBoundSql(ids(3, 4)));
+        assertThat(second.getParameterMappings()).isSameAs(first.getParameterMappings());
+        assertThat(second.getAdditionalParameter("__frch_id_0")).isEqualTo(3);
+        assertThat(single.getParameterMappings()).hasSize(1);
+    }
+
+    @Test
+    public void testCacheDisabled() {
+        BoundSqlCache boundSqlCache = new BoundSqlCache(getConfiguration(), 0);
+        MappedStatement mappedStatement = getConfiguration().getMappedStatement("org.apache.ibatis.r2dbc.demo.UserMapper.dynamicFindExample");
+        BoundSql first = boundSqlCache.getBoundSql(mappedStatement, new User(1, "first"));
+        BoundSql second = boundSqlCache.getBoundSql(mappedStatement, new User(2, "second"));
+        assertThat(second.getParameterMappings()).isNotSameAs(first.getParameterMappings());
+    }
+
+    /**
+     * list parameter wrapped as mapper method does
+     */
+    private Object ids(Integer... ids) {
+        return ParamNameResolver.wrapToMapIfCollection(Arrays.asList(ids), null);
+    }
+
+    private void assertSameBoundSql(BoundSql actual, BoundSql expected) {
+        assertThat(actual.getSql()).isEqualTo(expected.getSql());
+        assertThat(properties(actual.getParameterMappings())).isEqualTo(properties(expected.getParameterMappings()));
+        for (ParameterMapping parameterMapping : expected.getParameterMappings()) {
+            assertThat(actual.hasAdditionalParameter(parameterMapping.getProperty())).isEqualTo(expected.hasAdditionalParameter(parameterMapping.getProperty()));
+        }
+    }
+
+    private List<String> properties(List<ParameterMapping> parameterMappings) {
+        return parameterMappings.stream()
+                .map(parameterMapping -> parameterMapping.getProperty() + ":" + parameterMapping.getJavaType().getName())
+                .collect(Collectors.toList());
+    }
+}
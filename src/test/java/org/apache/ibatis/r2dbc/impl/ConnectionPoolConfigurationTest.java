@@ -0,0 +1,81 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * connection pool configuration test
+ *
+ * @author linux_china
+ */
+public class ConnectionPoolConfigurationTest {
+
+    @Test
+    public void testDuration() {
+        assertThat(DefaultReactiveSqlSessionFactory.duration("5", ChronoUnit.MINUTES)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(DefaultReactiveSqlSessionFactory.duration("500", ChronoUnit.MILLIS)).isEqualTo(Duration.ofMillis(500));
+        assertThat(DefaultReactiveSqlSessionFactory.duration("500ms", ChronoUnit.MINUTES)).isEqualTo(Duration.ofMillis(500));
+        assertThat(DefaultReactiveSqlSessionFactory.duration("30s", ChronoUnit.MINUTES)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(DefaultReactiveSqlSessionFactory.duration("30 s", ChronoUnit.MINUTES)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(DefaultReactiveSqlSessionFactory.duration("2 MS", ChronoUnit.MINUTES)).isEqualTo(Duration.ofMillis(2));
+        assertThat(DefaultReactiveSqlSessionFactory.duration("2h", ChronoUnit.MINUTES)).isEqualTo(Duration.ofHours(2));
+        assertThat(DefaultReactiveSqlSessionFactory.duration("PT1M30S", ChronoUnit.MINUTES)).isEqualTo(Duration.ofSeconds(90));
+        assertThatThrownBy(() -> DefaultReactiveSqlSessionFactory.duration("30x", ChronoUnit.MINUTES)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        MockConnectionFactoryProvider.connectionFactory = connectionFactory;
+        Properties properties = new Properties();
+        properties.setProperty("r2dbc.url", "r2dbc:mock://localhost/test");
+        properties.setProperty("r2dbc.pool.initial-size", "3");
+        properties.setProperty("r2dbc.pool.max-size", "5");
+        properties.setProperty("r2dbc.pool.max-idle-time", "10m");
+        properties.setProperty("r2dbc.pool.max-acquire-time", "3s");
+        properties.setProperty("r2dbc.pool.max-create-connection-time", "2000");
+        properties.setProperty("r2dbc.pool.max-life-time", "PT30M");
+        properties.setProperty("r2dbc.pool.background-eviction-interval", "1m");
+        properties.setProperty("r2dbc.pool.acquire-retry", "2");
+        properties.setProperty("r2dbc.pool.validation-depth", "local");
+        properties.setProperty("r2dbc.pool.warm-up.enabled", "true");
+        properties.setProperty("mapper.warm-up.enabled", "false");
+        XMLConfigBuilder xmlConfigBuilder = new XMLConfigBuilder(this.getClass().getResourceAsStream("/mybatis-config.xml"), null, properties);
+        Configuration configuration = xmlConfigBuilder.parse();
+        DefaultReactiveSqlSessionFactory sqlSessionFactory = new DefaultReactiveSqlSessionFactory(configuration);
+        try {
+            assertThat(sqlSessionFactory.getConnectionFactory()).isInstanceOf(ConnectionPool.class);
+            // connections are opened at construction
+            assertThat(connectionFactory.created).hasValue(3);
+        } finally {
+            sqlSessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testWarmUpDisabledByDefault() throws Exception {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        MockConnectionFactoryProvider.connectionFactory = connectionFactory;
+        Properties properties = new Properties();
+        properties.setProperty("r2dbc.url", "r2dbc:mock://localhost/test");
+        properties.setProperty("r2dbc.pool.initial-size", "3");
+        properties.setProperty("mapper.warm-up.enabled", "false");
+        XMLConfigBuilder xmlConfigBuilder = new XMLConfigBuilder(this.getClass().getResourceAsStream("/mybatis-config.xml"), null, properties);
+        DefaultReactiveSqlSessionFactory sqlSessionFactory = new DefaultReactiveSqlSessionFactory(xmlConfigBuilder.parse());
+        try {
+            // no connection is opened until the first statement
+            assertThat(connectionFactory.created).hasValue(0);
+        } finally {
+            sqlSessionFactory.close();
+        }
+    }
+}
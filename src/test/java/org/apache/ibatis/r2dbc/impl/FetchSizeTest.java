@@ -0,0 +1,41 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fetch size and backpressure test
+ *
+ * @author linux_china
+ */
+public class FetchSizeTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testFetchSizeLimitsRowsRead() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        List<SimpleRow> rows = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            rows.add(new SimpleRow(rowMetadata, i, "nick" + i, LocalDateTime.now()));
+        }
+        connectionFactory.rows = sql -> rows;
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.select("org.apache.ibatis.r2dbc.demo.UserMapper.findAll"), 10)
+                .expectNextCount(10)
+                .then(() -> assertThat(connectionFactory.rowsRead.get()).isLessThanOrEqualTo(100))
+                .thenCancel()
+                .verify();
+        assertThat(connectionFactory.fetchSizes).containsExactly(100);
+        assertThat(connectionFactory.closed).hasValue(1);
+    }
+}
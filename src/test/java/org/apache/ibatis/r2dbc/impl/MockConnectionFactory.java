@@ -0,0 +1,125 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import io.r2dbc.spi.*;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Mock connection factory to record connection and statement operations without database
+ *
+ * @author linux_china
+ */
+public class MockConnectionFactory implements ConnectionFactory {
+    public final AtomicInteger created = new AtomicInteger();
+    public final AtomicInteger closed = new AtomicInteger();
+    public final AtomicInteger begun = new AtomicInteger();
+    public final AtomicInteger committed = new AtomicInteger();
+    public final AtomicInteger rolledBack = new AtomicInteger();
+    public final List<String> executedSql = Collections.synchronizedList(new ArrayList<>());
+    public final List<Map<Integer, Object>> bindings = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * rows returned for executed SQL
+     */
+    public volatile Function<String, List<SimpleRow>> rows = sql -> Collections.emptyList();
+    public final AtomicInteger rowsRead = new AtomicInteger();
+    public final List<Integer> fetchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final String name;
+
+    public MockConnectionFactory() {
+        this("mock");
+    }
+
+    /**
+     * @param name database name in metadata, such as MariaDB or PostgreSQL
+     */
+    public MockConnectionFactory(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.fromCallable(() -> {
+            created.incrementAndGet();
+            return newConnection();
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return () -> name;
+    }
+
+    private Connection newConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createStatement":
+                    return newStatement((String) args[0]);
+                case "beginTransaction":
+                    return Mono.<Void>empty().doOnSubscribe(s -> begun.incrementAndGet());
+                case "commitTransaction":
+                    return Mono.<Void>empty().doOnSubscribe(s -> committed.incrementAndGet());
+                case "rollbackTransaction":
+                    return Mono.<Void>empty().doOnSubscribe(s -> rolledBack.incrementAndGet());
+                case "close":
+                    return Mono.<Void>empty().doOnSubscribe(s -> closed.incrementAndGet());
+                case "isAutoCommit":
+                    return true;
+                default:
+                    return Mono.empty();
+            }
+        });
+    }
+
+    private Statement newStatement(String sql) {
+        List<Map<Integer, Object>> parameterSets = new ArrayList<>();
+        parameterSets.add(new HashMap<>());
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Statement.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "bind":
+                case "bindNull":
+                    parameterSets.get(parameterSets.size() - 1).put((Integer) args[0], method.getName().equals("bind") ? args[1] : null);
+                    return proxy;
+                case "add":
+                    parameterSets.add(new HashMap<>());
+                    return proxy;
+                case "fetchSize":
+                    fetchSizes.add((Integer) args[0]);
+                    return proxy;
+                case "execute":
+                    return Flux.defer(() -> {
+                        executedSql.add(sql);
+                        List<Result> results = new ArrayList<>();
+                        for (Map<Integer, Object> parameterSet : parameterSets) {
+                            if (!parameterSet.isEmpty() || parameterSets.size() == 1) {
+                                bindings.add(parameterSet);
+                                results.add(newResult(sql));
+                            }
+                        }
+                        return Flux.fromIterable(results);
+                    });
+                default:
+                    return proxy;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Result newResult(String sql) {
+        return (Result) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Result.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getRowsUpdated")) {
+                return Mono.just(1);
+            }
+            BiFunction<Row, RowMetadata, ?> mappingFunction = (BiFunction<Row, RowMetadata, ?>) args[0];
+            return Flux.fromIterable(rows.apply(sql)).doOnNext(row -> rowsRead.incrementAndGet())
+                    .map(row -> mappingFunction.apply(row, row.getRowMetadata()));
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.ConnectionFactoryProvider;
+
+/**
+ * Connection factory provider for r2dbc:mock:// url
+ *
+ * @author linux_china
+ */
+public class MockConnectionFactoryProvider implements ConnectionFactoryProvider {
+    public static volatile MockConnectionFactory connectionFactory = new MockConnectionFactory();
+
+    @Override
+    public ConnectionFactory create(ConnectionFactoryOptions connectionFactoryOptions) {
+        return connectionFactory;
+    }
+
+    @Override
+    public boolean supports(ConnectionFactoryOptions connectionFactoryOptions) {
+        return "mock".equals(connectionFactoryOptions.getValue(ConnectionFactoryOptions.DRIVER));
+    }
+
+    @Override
+    public String getDriver() {
+        return "mock";
+    }
+}
@@ -0,0 +1,121 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.apache.ibatis.r2dbc.dialect.Dialect;
+import org.apache.ibatis.r2dbc.dialect.KeysetRowBounds;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Database side paging test
+ *
+ * @author linux_china
+ */
+public class PagingTest extends MyBatisBaseTestSupport {
+    private static final String FIND_ALL = "org.apache.ibatis.r2dbc.demo.UserMapper.findAll";
+
+    @Test
+    public void testDialectSql() {
+        assertThat(Dialect.forDatabase("MariaDB").getLimitSql("select * from people", 20, 10)).isEqualTo("select * from people LIMIT 20, 10");
+        assertThat(Dialect.forDatabase("MySQL").getLimitSql("select * from people;", 0, 10)).isEqualTo("select * from people LIMIT 10");
+        assertThat(Dialect.forDatabase("PostgreSQL").getLimitSql("select * from people", 20, 10)).isEqualTo("select * from people LIMIT 10 OFFSET 20");
+        assertThat(Dialect.forDatabase("H2").getLimitSql("select * from people", 20, RowBounds.NO_ROW_LIMIT)).isEqualTo("select * from people OFFSET 20");
+        assertThat(Dialect.forDatabase("PostgreSQL").getKeysetSql("select * from people", "id", true, 10))
+                .isEqualTo("SELECT * FROM (select * from people) keyset_page WHERE id > ? ORDER BY id LIMIT 10");
+        assertThat(Dialect.forDatabase("Microsoft SQL Server").getLimitSql("select * from people order by id", 20, 10))
+                .isEqualTo("select * from people order by id OFFSET 20 ROWS FETCH NEXT 10 ROWS ONLY");
+        assertThat(Dialect.forDatabase("mock")).isNull();
+    }
+
+    @Test
+    public void testTranslateSql() {
+        String sql = "select * from people where nick = ? and note <> '?' /* ? */ and id in (?, ?) -- ?\n and \"a?\" = ?";
+        assertThat(Dialect.forDatabase("PostgreSQL").translateSql(sql))
+                .isEqualTo("select * from people where nick = $1 and note <> '?' /* ? */ and id in ($2, $3) -- ?\n and \"a?\" = $4");
+        assertThat(Dialect.forDatabase("Microsoft SQL Server").translateSql("select * from people where id = ? and nick = ?"))
+                .isEqualTo("select * from people where id = @P0 and nick = @P1");
+        assertThat(Dialect.forDatabase("MariaDB").translateSql(sql)).isSameAs(sql);
+    }
+
+    @Test
+    public void testLimitOffset() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory("MariaDB");
+        connectionFactory.rows = sql -> users(3);
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.select(FIND_ALL, null, new RowBounds(20, 10)))
+                .expectNextCount(3)
+                .verifyComplete();
+        assertThat(connectionFactory.executedSql.get(0)).endsWith("LIMIT 20, 10");
+    }
+
+    @Test
+    public void testKeyset() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory("PostgreSQL");
+        connectionFactory.rows = sql -> users(2);
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.select(FIND_ALL, null, new KeysetRowBounds("id", 100, 2)))
+                .expectNextCount(2)
+                .verifyComplete();
+        assertThat(connectionFactory.executedSql.get(0)).contains("WHERE id > $1 ORDER BY id LIMIT 2");
+        assertThat(connectionFactory.bindings.get(0)).containsEntry(0, 100);
+    }
+
+    @Test
+    public void testClientSidePagingWithoutDialect() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        connectionFactory.rows = sql -> users(5);
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.select(FIND_ALL, null, new RowBounds(1, 2)))
+                .expectNextCount(2)
+                .verifyComplete();
+        assertThat(connectionFactory.executedSql.get(0)).doesNotContain("LIMIT");
+        StepVerifier.create(sqlSession.select(FIND_ALL, null, new KeysetRowBounds("id", null, 2)))
+                .verifyError(PersistenceException.class);
+    }
+
+    @Test
+    public void testStreamByKeyset() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory("MariaDB");
+        AtomicInteger pages = new AtomicInteger();
+        connectionFactory.rows = sql -> {
+            int page = pages.getAndIncrement();
+            return users(page * 2 + 1, page < 2 ? 2 : 1);
+        };
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.<User>streamByKeyset(FIND_ALL, null, "id", 2).map(User::getId))
+                .expectNext(1, 2, 3, 4, 5)
+                .verifyComplete();
+        assertThat(connectionFactory.executedSql).hasSize(3);
+        assertThat(connectionFactory.executedSql.get(0)).doesNotContain("WHERE").endsWith("ORDER BY id LIMIT 2");
+        assertThat(connectionFactory.bindings.get(1)).containsEntry(0, 2);
+        assertThat(connectionFactory.bindings.get(2)).containsEntry(0, 4);
+        assertThat(connectionFactory.created).hasValue(3);
+        assertThat(connectionFactory.closed).hasValue(3);
+    }
+
+    private List<SimpleRow> users(int count) {
+        return users(1, count);
+    }
+
+    private List<SimpleRow> users(int firstId, int count) {
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        List<SimpleRow> rows = new ArrayList<>();
+        for (int i = firstId; i < firstId + count; i++) {
+            rows.add(new SimpleRow(rowMetadata, i, "nick" + i, LocalDateTime.now()));
+        }
+        return rows;
+    }
+}
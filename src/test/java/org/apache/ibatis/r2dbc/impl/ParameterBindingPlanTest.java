@@ -0,0 +1,41 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * parameter binding plan test
+ *
+ * @author linux_china
+ */
+public class ParameterBindingPlanTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testBindWithPlan() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        String statementId = "org.apache.ibatis.r2dbc.demo.UserMapper.update";
+        StepVerifier.create(sqlSession.update(statementId, new User(1, "first"))).expectNext(1).verifyComplete();
+        StepVerifier.create(sqlSession.update(statementId, new User(2, null))).expectNext(1).verifyComplete();
+        assertThat(connectionFactory.bindings).hasSize(2);
+        assertThat(connectionFactory.bindings.get(0)).containsEntry(0, "first").containsEntry(1, 1);
+        assertThat(connectionFactory.bindings.get(1)).containsEntry(0, null).containsEntry(1, 2);
+    }
+
+    @Test
+    public void testBindSimpleParameter() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        String statementId = "org.apache.ibatis.r2dbc.demo.UserMapper.findById";
+        StepVerifier.create(sqlSession.selectOne(statementId, 1)).verifyComplete();
+        StepVerifier.create(sqlSession.selectOne(statementId, 2)).verifyComplete();
+        assertThat(connectionFactory.bindings).hasSize(2);
+        assertThat(connectionFactory.bindings.get(0)).containsEntry(0, 1);
+        assertThat(connectionFactory.bindings.get(1)).containsEntry(0, 2);
+    }
+}
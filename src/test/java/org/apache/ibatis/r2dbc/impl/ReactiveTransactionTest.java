@@ -0,0 +1,106 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reactive transaction test
+ *
+ * @author linux_china
+ */
+public class ReactiveTransactionTest extends MyBatisBaseTestSupport {
+    private static final String UPDATE_STATEMENT = "org.apache.ibatis.r2dbc.demo.UserMapper.update";
+
+    @Test
+    public void testCommit() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.inTransaction(session -> session.update(UPDATE_STATEMENT, new User(1, "first"))
+                .then(session.update(UPDATE_STATEMENT, new User(2, "second")))
+                .then(session.inTransaction(nested -> nested.update(UPDATE_STATEMENT, new User(3, "third"))).then())))
+                .verifyComplete();
+        assertThat(connectionFactory.created).hasValue(1);
+        assertThat(connectionFactory.begun).hasValue(1);
+        assertThat(connectionFactory.committed).hasValue(1);
+        assertThat(connectionFactory.rolledBack).hasValue(0);
+        assertThat(connectionFactory.closed).hasValue(1);
+        assertThat(connectionFactory.executedSql).hasSize(3);
+    }
+
+    @Test
+    public void testRollback() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.inTransaction(session -> session.update(UPDATE_STATEMENT, new User(1, "first"))
+                .then(Mono.error(new IllegalStateException("rollback")))))
+                .verifyError(IllegalStateException.class);
+        assertThat(connectionFactory.committed).hasValue(0);
+        assertThat(connectionFactory.rolledBack).hasValue(1);
+        assertThat(connectionFactory.closed).hasValue(1);
+    }
+
+    @Test
+    public void testWithoutTransaction() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.update(UPDATE_STATEMENT, new User(1, "first")))
+                .expectNext(1)
+                .verifyComplete();
+        assertThat(connectionFactory.created).hasValue(1);
+        assertThat(connectionFactory.begun).hasValue(0);
+        assertThat(connectionFactory.closed).hasValue(1);
+    }
+
+    @Test
+    public void testCacheFlushedOnCommit() {
+        Configuration configuration = new XMLConfigBuilder(this.getClass().getResourceAsStream("/mybatis-config.xml")).parse();
+        Cache cache = new PerpetualCache("cache");
+        ResultMap resultMap = new ResultMap.Builder(configuration, "cache.findAll-Inline", Map.class, new ArrayList<>()).build();
+        configuration.addMappedStatement(new MappedStatement.Builder(configuration, "cache.findAll",
+                new StaticSqlSource(configuration, "select nick from cache_people"), SqlCommandType.SELECT)
+                .resultMaps(Collections.singletonList(resultMap)).cache(cache).useCache(true).flushCacheRequired(false).build());
+        configuration.addMappedStatement(new MappedStatement.Builder(configuration, "cache.update",
+                new StaticSqlSource(configuration, "update cache_people set nick = 'new'"), SqlCommandType.UPDATE)
+                .cache(cache).flushCacheRequired(true).build());
+        // committed value seen by readers outside the transaction
+        AtomicReference<String> committedNick = new AtomicReference<>("old");
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("nick");
+        connectionFactory.rows = sql -> Collections.singletonList(new SimpleRow(rowMetadata, committedNick.get()));
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(configuration, connectionFactory);
+        Mono<List<Object>> outsideRead = Mono.defer(() -> Mono.fromFuture(sqlSession.<Map<String, Object>>select("cache.findAll")
+                .map(row -> row.get("nick")).collectList().toFuture()));
+        assertThat(outsideRead.block(Duration.ofSeconds(5))).containsExactly("old");
+        // reader outside the transaction runs after the update has terminated and before the commit
+        StepVerifier.create(sqlSession.inTransaction(session -> session.update("cache.update")
+                        .then(Mono.delay(Duration.ofMillis(20)))
+                        .then(outsideRead)
+                        .doOnSuccess(ignore -> committedNick.set("new"))))
+                .expectNext(Collections.singletonList("old"))
+                .verifyComplete();
+        assertThat(outsideRead.block(Duration.ofSeconds(5))).containsExactly("new");
+    }
+}
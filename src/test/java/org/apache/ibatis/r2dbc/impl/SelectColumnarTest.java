@@ -0,0 +1,55 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.mapping.ColumnBatch;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * select columnar test
+ *
+ * @author linux_china
+ */
+public class SelectColumnarTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testSelectColumnar() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        LocalDateTime now = LocalDateTime.now();
+        List<SimpleRow> rows = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            rows.add(new SimpleRow(rowMetadata, i == 3 ? null : i, "nick" + i, now));
+        }
+        connectionFactory.rows = sql -> rows;
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.selectColumnar("org.apache.ibatis.r2dbc.demo.UserMapper.findAll", null, 3))
+                .assertNext(batch -> {
+                    assertThat(batch.size()).isEqualTo(3);
+                    assertThat(batch.getColumnNames()).containsExactly("id", "nick", "created_at");
+                    int id = batch.indexOf("id");
+                    assertThat(batch.getColumnType(id)).isEqualTo(long.class);
+                    assertThat(batch.getLongs(id)).containsExactly(1, 2, 0);
+                    assertThat(batch.isNull(id, 2)).isTrue();
+                    assertThat(batch.getObjects(batch.indexOf("nick"))).containsExactly("nick1", "nick2", "nick3");
+                    // read by R2DBC type handler of result mapping
+                    assertThat(batch.getObjects(batch.indexOf("created_at"))[0]).isInstanceOf(Date.class);
+                })
+                .assertNext(batch -> {
+                    assertThat(batch.size()).isEqualTo(2);
+                    assertThat(batch.getLongs(0)).startsWith(4, 5);
+                    assertThat(batch.isNull(0, 0)).isFalse();
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,66 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * select longs test
+ *
+ * @author linux_china
+ */
+public class SelectLongsTest extends MyBatisBaseTestSupport {
+
+    private ReactiveSqlSession newSqlSession() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id");
+        List<SimpleRow> rows = new ArrayList<>();
+        rows.add(new SimpleRow(rowMetadata, 1));
+        rows.add(new SimpleRow(rowMetadata, 2L));
+        rows.add(new SimpleRow(rowMetadata, (Object) null));
+        rows.add(new SimpleRow(rowMetadata, 4));
+        rows.add(new SimpleRow(rowMetadata, 5));
+        connectionFactory.rows = sql -> rows;
+        return new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+    }
+
+    @Test
+    public void testSelectLongs() {
+        StepVerifier.create(newSqlSession().selectLongs("org.apache.ibatis.r2dbc.demo.UserMapper.findAll", null))
+                .assertNext(values -> assertThat(values).containsExactly(1, 2, 0, 4, 5))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testSelectLongChunks() {
+        StepVerifier.create(newSqlSession().selectLongs("org.apache.ibatis.r2dbc.demo.UserMapper.findAll", null, 2))
+                .assertNext(chunk -> assertThat(chunk).containsExactly(1, 2))
+                .assertNext(chunk -> assertThat(chunk).containsExactly(0, 4))
+                .assertNext(chunk -> assertThat(chunk).containsExactly(5))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testSelectLongsWithNonNumericColumn() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("nick");
+        connectionFactory.rows = sql -> Collections.singletonList(new SimpleRow(rowMetadata, "linux_china"));
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.selectLongs("org.apache.ibatis.r2dbc.demo.UserMapper.findAll", null))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(ResultMapException.class)
+                        .hasMessageContaining("nick")
+                        .hasMessageContaining("org.apache.ibatis.r2dbc.demo.UserMapper.findAll"))
+                .verify();
+    }
+}
@@ -0,0 +1,46 @@
+package org.apache.ibatis.r2dbc.impl;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL stability tracker test
+ *
+ * @author linux_china
+ */
+public class SqlStabilityTrackerTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testRecord() {
+        SqlStabilityTracker tracker = new SqlStabilityTracker(2);
+        tracker.record("findById", "select * from people where id = ?");
+        tracker.record("findById", "select * from people where id = ?");
+        tracker.record("search", "select * from people where nick = ?");
+        tracker.record("search", "select * from people where id = ?");
+        tracker.record("search", "select * from people where nick = ? and id = ?");
+        tracker.record("search", "select * from people where nick = ?");
+        assertThat(tracker.getStatementStats("findById").getExecutions()).isEqualTo(2);
+        assertThat(tracker.getStatementStats("findById").getSqlChanges()).isZero();
+        assertThat(tracker.getStatementStats("search").getSqlChanges()).isEqualTo(3);
+        assertThat(tracker.getStatementStats("search").getSqlVariants()).isEqualTo(3);
+        assertThat(tracker.getRepreparedStatements()).containsExactly("search");
+    }
+
+    @Test
+    public void testSessionTracksDynamicSql() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        DefaultReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        String statementId = "org.apache.ibatis.r2dbc.demo.UserMapper.dynamicFindExample";
+        StepVerifier.create(sqlSession.selectOne(statementId, new User(1, "first"))).verifyComplete();
+        StepVerifier.create(sqlSession.selectOne(statementId, new User(2, "second"))).verifyComplete();
+        StepVerifier.create(sqlSession.selectOne(statementId, new User(null, "nick"))).verifyComplete();
+        SqlStabilityTracker.StatementStats stats = sqlSession.getSqlStabilityTracker().getStatementStats(statementId);
+        assertThat(stats.getExecutions()).isEqualTo(3);
+        assertThat(stats.getSqlVariants()).isEqualTo(2);
+        assertThat(stats.getSqlChanges()).isEqualTo(1);
+    }
+}
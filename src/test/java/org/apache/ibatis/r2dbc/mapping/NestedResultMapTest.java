@@ -0,0 +1,49 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.demo.Team;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.apache.ibatis.r2dbc.impl.DefaultReactiveSqlSession;
+import org.apache.ibatis.r2dbc.impl.MockConnectionFactory;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nested result map test
+ *
+ * @author linux_china
+ */
+public class NestedResultMapTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testAssociationAndCollection() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "name", "leader_id", "leader_nick", "member_id", "member_nick");
+        connectionFactory.rows = sql -> Arrays.asList(
+                new SimpleRow(rowMetadata, 1, "first", 10, "leader1", 11, "member11"),
+                new SimpleRow(rowMetadata, 1, "first", 10, "leader1", 12, "member12"),
+                new SimpleRow(rowMetadata, 1, "first", 10, "leader1", 12, "member12"),
+                new SimpleRow(rowMetadata, 2, "second", null, null, null, null),
+                new SimpleRow(rowMetadata, 3, "third", 30, "leader3", 31, "member31"));
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        StepVerifier.create(sqlSession.<Team>select("org.apache.ibatis.r2dbc.demo.TeamMapper.findAllWithMembers"))
+                .assertNext(team -> {
+                    assertThat(team.getId()).isEqualTo(1);
+                    assertThat(team.getLeader().getNick()).isEqualTo("leader1");
+                    assertThat(team.getMembers()).extracting(User::getId).containsExactly(11, 12);
+                })
+                .assertNext(team -> {
+                    assertThat(team.getName()).isEqualTo("second");
+                    assertThat(team.getLeader()).isNull();
+                    assertThat(team.getMembers()).isEmpty();
+                })
+                .assertNext(team -> assertThat(team.getMembers()).extracting(User::getNick).containsExactly("member31"))
+                .verifyComplete();
+    }
+}
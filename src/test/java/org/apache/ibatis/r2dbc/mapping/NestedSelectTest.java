@@ -0,0 +1,111 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.r2dbc.ReactiveSqlSession;
+import org.apache.ibatis.r2dbc.demo.Team;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.apache.ibatis.r2dbc.demo.UserMapper;
+import org.apache.ibatis.r2dbc.impl.DefaultReactiveSqlSession;
+import org.apache.ibatis.r2dbc.impl.MockConnectionFactory;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nested select test
+ *
+ * @author linux_china
+ */
+public class NestedSelectTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testBatchedAndLazyNestedSelect() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata teamMetadata = new SimpleRowMetadata("id", "name", "leader_id", "creator_id");
+        SimpleRowMetadata userMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        connectionFactory.rows = sql -> {
+            if (sql.contains("from team")) {
+                return Arrays.asList(new SimpleRow(teamMetadata, 1, "first", 10, 100),
+                        new SimpleRow(teamMetadata, 2, "second", 20, 200),
+                        new SimpleRow(teamMetadata, 3, "third", null, 300));
+            } else if (sql.contains(" in")) {
+                return Arrays.asList(new SimpleRow(userMetadata, 10, "leader10", LocalDateTime.now()),
+                        new SimpleRow(userMetadata, 20, "leader20", LocalDateTime.now()));
+            }
+            return Collections.singletonList(new SimpleRow(userMetadata, 100, "creator100", LocalDateTime.now()));
+        };
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        List<Team> teams = sqlSession.<Team>select("org.apache.ibatis.r2dbc.demo.TeamMapper.findAll")
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(teams).extracting(Team::getName).containsExactly("first", "second", "third");
+        assertThat(teams.get(0).getLeader().getNick()).isEqualTo("leader10");
+        assertThat(teams.get(1).getLeader().getNick()).isEqualTo("leader20");
+        assertThat(teams.get(2).getLeader()).isNull();
+        // team query and one batched leader query, and lazy creator is not loaded
+        assertThat(connectionFactory.executedSql).hasSize(2);
+        assertThat(teams.get(0).getCreator().block(Duration.ofSeconds(5)).getNick()).isEqualTo("creator100");
+        assertThat(connectionFactory.executedSql).hasSize(3);
+    }
+
+    @Test
+    public void testNestedSelectSharesBatchWithMapperMethod() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata teamMetadata = new SimpleRowMetadata("id", "name", "leader_id", "creator_id");
+        SimpleRowMetadata userMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        connectionFactory.rows = sql -> {
+            if (sql.contains("from team")) {
+                return Collections.singletonList(new SimpleRow(teamMetadata, 1, "first", 10, 100));
+            }
+            return Arrays.asList(new SimpleRow(userMetadata, 10, "leader10", LocalDateTime.now()),
+                    new SimpleRow(userMetadata, 30, "user30", LocalDateTime.now()));
+        };
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(getConfiguration(), connectionFactory);
+        UserMapper userMapper = sqlSession.getMapper(UserMapper.class);
+        Mono<User> user = userMapper.loadById(30);
+        Mono<List<Team>> teams = sqlSession.<Team>select("org.apache.ibatis.r2dbc.demo.TeamMapper.findAll").collectList();
+        String nicks = Mono.zip(user, teams, (user30, teamList) -> user30.getNick() + "," + teamList.get(0).getLeader().getNick())
+                .block(Duration.ofSeconds(5));
+        assertThat(nicks).isEqualTo("user30,leader10");
+        // team query and one leader query shared by mapper method and nested select
+        assertThat(connectionFactory.executedSql).hasSize(2);
+    }
+
+    @Test
+    public void testNestedSelectWithAdmissionControl() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata teamMetadata = new SimpleRowMetadata("id", "name", "leader_id", "creator_id");
+        SimpleRowMetadata userMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        connectionFactory.rows = sql -> {
+            if (sql.contains("from team")) {
+                return Arrays.asList(new SimpleRow(teamMetadata, 1, "first", 10, 100),
+                        new SimpleRow(teamMetadata, 2, "second", 20, 200));
+            }
+            return Arrays.asList(new SimpleRow(userMetadata, 10, "leader10", LocalDateTime.now()),
+                    new SimpleRow(userMetadata, 20, "leader20", LocalDateTime.now()));
+        };
+        Properties properties = new Properties();
+        properties.setProperty("r2dbc.admission.enabled", "true");
+        properties.setProperty("r2dbc.admission.max-permits", "1");
+        properties.setProperty("r2dbc.admission.max-wait-millis", "500");
+        Configuration configuration = new XMLConfigBuilder(this.getClass().getResourceAsStream("/mybatis-config.xml"), null, properties).parse();
+        ReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(configuration, connectionFactory);
+        // eager nested selects are executed after the parent rows are drained and the permit of parent is released
+        List<Team> teams = sqlSession.<Team>select("org.apache.ibatis.r2dbc.demo.TeamMapper.findAll")
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(teams).extracting(team -> team.getLeader().getNick()).containsExactly("leader10", "leader20");
+        assertThat(connectionFactory.executedSql).hasSize(2);
+    }
+}
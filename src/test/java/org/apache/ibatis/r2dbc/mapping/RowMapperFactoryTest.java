@@ -0,0 +1,137 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.apache.ibatis.r2dbc.demo.UserView;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.apache.ibatis.r2dbc.reflection.PropertyAccessorFactory;
+import org.apache.ibatis.r2dbc.type.TypeHandlerRegistry;
+import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RowMapperFactory test
+ *
+ * @author linux_china
+ */
+public class RowMapperFactoryTest extends MyBatisBaseTestSupport {
+    private static final String NAMESPACE = "org.apache.ibatis.r2dbc.demo.UserMapper";
+
+    private RowMapperFactory newRowMapperFactory() {
+        return newRowMapperFactory(getConfiguration());
+    }
+
+    private RowMapperFactory newRowMapperFactory(Configuration configuration) {
+        return new RowMapperFactory(configuration, new TypeHandlerRegistry(), new PropertyAccessorFactory(configuration));
+    }
+
+    @Test
+    public void testPojoMapping() {
+        RowMapperFactory rowMapperFactory = newRowMapperFactory();
+        ResultMap resultMap = getConfiguration().getResultMap(NAMESPACE + ".UserResultMap");
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("nick", "ID", "created_at");
+        LocalDateTime createdAt = LocalDateTime.now();
+        User user = rowMapperFactory.<User>getRowMapper(resultMap, rowMetadata)
+                .map(new SimpleRow(rowMetadata, "linux_china", 1, createdAt), rowMetadata);
+        assertThat(user.getId()).isEqualTo(1);
+        assertThat(user.getNick()).isEqualTo("linux_china");
+        assertThat(user.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    public void testConstructorMapping() {
+        RowMapperFactory rowMapperFactory = newRowMapperFactory();
+        ResultMap resultMap = getConfiguration().getResultMap(NAMESPACE + ".UserViewResultMap");
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("nick", "id");
+        RowMapper<UserView> rowMapper = rowMapperFactory.getRowMapper(resultMap, rowMetadata);
+        UserView userView = rowMapper.map(new SimpleRow(rowMetadata, "linux_china", 1), rowMetadata);
+        assertThat(userView.getId()).isEqualTo(1);
+        assertThat(userView.getNick()).isEqualTo("linux_china");
+        // null for primitive argument
+        assertThat(rowMapper.map(new SimpleRow(rowMetadata, "nobody", null), rowMetadata).getId()).isEqualTo(0);
+    }
+
+    @Test
+    public void testAutoMapping() {
+        Configuration configuration = new Configuration();
+        ResultMap resultMap = new ResultMap.Builder(configuration, "autoUser", User.class, new ArrayList<>()).build();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("ID", "nick", "created_at");
+        SimpleRow row = new SimpleRow(rowMetadata, 1, "linux_china", LocalDateTime.now());
+        User user = newRowMapperFactory(configuration).<User>getRowMapper(resultMap, rowMetadata).map(row, rowMetadata);
+        assertThat(user.getId()).isEqualTo(1);
+        assertThat(user.getNick()).isEqualTo("linux_china");
+        assertThat(user.getCreatedAt()).isNull();
+        configuration.setMapUnderscoreToCamelCase(true);
+        user = newRowMapperFactory(configuration).<User>getRowMapper(resultMap, rowMetadata).map(row, rowMetadata);
+        assertThat(user.getCreatedAt()).isNotNull();
+        configuration.setAutoMappingBehavior(AutoMappingBehavior.NONE);
+        user = newRowMapperFactory(configuration).<User>getRowMapper(resultMap, rowMetadata).map(row, rowMetadata);
+        assertThat(user.getId()).isNull();
+        // primitive property is read as boxed type, and null keeps the default value
+        ResultMap personResultMap = new ResultMap.Builder(configuration, "autoPerson", Person.class, new ArrayList<>()).build();
+        configuration.setAutoMappingBehavior(AutoMappingBehavior.PARTIAL);
+        SimpleRowMetadata personMetadata = new SimpleRowMetadata("nick", "age");
+        RowMapper<Person> personMapper = newRowMapperFactory(configuration).getRowMapper(personResultMap, personMetadata);
+        Person person = personMapper.map(new SimpleRow(personMetadata, "linux_china", 18), personMetadata);
+        assertThat(person.getNick()).isEqualTo("linux_china");
+        assertThat(person.getAge()).isEqualTo(18);
+        assertThat(personMapper.map(new SimpleRow(personMetadata, "nobody", null), personMetadata).getAge()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRowMapperCached() {
+        RowMapperFactory rowMapperFactory = newRowMapperFactory();
+        ResultMap resultMap = getConfiguration().getResultMap(NAMESPACE + ".UserResultMap");
+        RowMapper<User> first = rowMapperFactory.getRowMapper(resultMap, new SimpleRowMetadata("id", "nick", "created_at"));
+        RowMapper<User> second = rowMapperFactory.getRowMapper(resultMap, new SimpleRowMetadata("id", "nick", "created_at"));
+        RowMapper<User> other = rowMapperFactory.getRowMapper(resultMap, new SimpleRowMetadata("id", "nick"));
+        assertThat(first).isSameAs(second);
+        assertThat(first).isNotSameAs(other);
+    }
+
+    @Test
+    public void testMapAndNumberMapping() {
+        RowMapperFactory rowMapperFactory = newRowMapperFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick");
+        ResultMap mapResultMap = getConfiguration().getMappedStatement(NAMESPACE + ".find2ById").getResultMaps().get(0);
+        BiFunction<Row, RowMetadata, Map<String, Object>> mapping = rowMapperFactory.newMappingFunction(mapResultMap);
+        Map<String, Object> result = mapping.apply(new SimpleRow(rowMetadata, 1, "linux_china"), rowMetadata);
+        assertThat(result).containsEntry("id", 1).containsEntry("nick", "linux_china");
+        ResultMap countResultMap = getConfiguration().getMappedStatement(NAMESPACE + ".getAllCount").getResultMaps().get(0);
+        SimpleRowMetadata countMetadata = new SimpleRowMetadata("count(*)");
+        Object count = rowMapperFactory.getRowMapper(countResultMap, countMetadata).map(new SimpleRow(countMetadata, 5), countMetadata);
+        assertThat(count).isEqualTo(5L);
+    }
+
+    public static class Person {
+        private String nick;
+        private int age;
+
+        public String getNick() {
+            return nick;
+        }
+
+        public void setNick(String nick) {
+            this.nick = nick;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.apache.ibatis.r2dbc.mapping;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.util.*;
+
+/**
+ * In memory row for mapping tests
+ *
+ * @author linux_china
+ */
+public class SimpleRow implements Row {
+    private final SimpleRowMetadata rowMetadata;
+    private final Object[] values;
+
+    public SimpleRow(SimpleRowMetadata rowMetadata, Object... values) {
+        this.rowMetadata = rowMetadata;
+        this.values = values;
+    }
+
+    public SimpleRowMetadata getRowMetadata() {
+        return rowMetadata;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(int index, Class<T> type) {
+        Object value = values[index];
+        if (type != null && type.isPrimitive()) {
+            // same as drivers, primitive type is not supported
+            throw new IllegalArgumentException("Unsupported primitive type: " + type.getName());
+        }
+        if (value == null || type == null || type == Object.class) {
+            return (T) value;
+        }
+        return type.cast(value);
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return get(rowMetadata.indexOf(name), type);
+    }
+
+    public static class SimpleRowMetadata implements RowMetadata {
+        private final List<String> columnNames;
+
+        public SimpleRowMetadata(String... columnNames) {
+            this.columnNames = Arrays.asList(columnNames);
+        }
+
+        int indexOf(String name) {
+            for (int i = 0; i < columnNames.size(); i++) {
+                if (columnNames.get(i).equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Column '" + name + "' not found");
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(int index) {
+            String name = columnNames.get(index);
+            return () -> name;
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(String name) {
+            return getColumnMetadata(indexOf(name));
+        }
+
+        @Override
+        public Iterable<? extends ColumnMetadata> getColumnMetadatas() {
+            List<ColumnMetadata> metadatas = new ArrayList<>();
+            for (int i = 0; i < columnNames.size(); i++) {
+                metadatas.add(getColumnMetadata(i));
+            }
+            return metadatas;
+        }
+
+        @Override
+        public Collection<String> getColumnNames() {
+            return columnNames;
+        }
+    }
+}
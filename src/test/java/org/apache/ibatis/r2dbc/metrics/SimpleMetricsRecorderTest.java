@@ -0,0 +1,101 @@
+package org.apache.ibatis.r2dbc.metrics;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.apache.ibatis.r2dbc.impl.DefaultReactiveSqlSession;
+import org.apache.ibatis.r2dbc.impl.DefaultReactiveSqlSessionFactory;
+import org.apache.ibatis.r2dbc.impl.MockConnectionFactory;
+import org.apache.ibatis.r2dbc.impl.MockConnectionFactoryProvider;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow;
+import org.apache.ibatis.r2dbc.mapping.SimpleRow.SimpleRowMetadata;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * simple metrics recorder test
+ *
+ * @author linux_china
+ */
+public class SimpleMetricsRecorderTest {
+
+    @Test
+    public void testTimer() {
+        SimpleMetricsRecorder.Timer timer = new SimpleMetricsRecorder.Timer();
+        for (int i = 1; i <= 100; i++) {
+            timer.record(i * 1000L);
+        }
+        assertThat(timer.getCount()).isEqualTo(100);
+        assertThat(timer.getTotalNanos()).isEqualTo(5050 * 1000L);
+        assertThat(timer.getMaxNanos()).isEqualTo(100_000L);
+        // 50_000 is in bucket [32768, 65536)
+        assertThat(timer.getPercentileNanos(0.5)).isEqualTo(65535L);
+        assertThat(timer.getPercentileNanos(0.99)).isEqualTo(100_000L);
+    }
+
+    @Test
+    public void testStatementMetrics() {
+        MockConnectionFactory connectionFactory = new MockConnectionFactory();
+        SimpleRowMetadata rowMetadata = new SimpleRowMetadata("id", "nick", "created_at");
+        List<SimpleRow> rows = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            rows.add(new SimpleRow(rowMetadata, i, "nick" + i, LocalDateTime.now()));
+        }
+        connectionFactory.rows = sql -> rows;
+        DefaultReactiveSqlSession sqlSession = new DefaultReactiveSqlSession(newConfiguration(), connectionFactory);
+        SimpleMetricsRecorder metricsRecorder = (SimpleMetricsRecorder) sqlSession.getMetricsRecorder();
+        StepVerifier.create(sqlSession.select("org.apache.ibatis.r2dbc.demo.UserMapper.findAll")).expectNextCount(3).verifyComplete();
+        StepVerifier.create(sqlSession.update("org.apache.ibatis.r2dbc.demo.UserMapper.update", new User(1, "nick"))).expectNext(1).verifyComplete();
+        SimpleMetricsRecorder.StatementMetrics findAll = metricsRecorder.getStatementMetrics("org.apache.ibatis.r2dbc.demo.UserMapper.findAll");
+        assertThat(findAll.getExecutionTimer().getCount()).isEqualTo(1);
+        assertThat(findAll.getRowsReturned()).isEqualTo(3);
+        assertThat(findAll.getMappingTimer().getCount()).isEqualTo(1);
+        assertThat(findAll.getRowsMapped()).isEqualTo(3);
+        assertThat(findAll.getErrors()).isZero();
+        assertThat(findAll.getCancels()).isZero();
+        // cancelled execution is not counted as successful execution
+        StepVerifier.create(sqlSession.select("org.apache.ibatis.r2dbc.demo.UserMapper.findAll").take(1)).expectNextCount(1).verifyComplete();
+        assertThat(findAll.getCancels()).isEqualTo(1);
+        assertThat(findAll.getExecutionTimer().getCount()).isEqualTo(1);
+        SimpleMetricsRecorder.StatementMetrics update = metricsRecorder.getStatementMetrics("org.apache.ibatis.r2dbc.demo.UserMapper.update");
+        assertThat(update.getRowsUpdated()).isEqualTo(1);
+        assertThat(update.getBindTimer().getCount()).isEqualTo(1);
+        assertThat(metricsRecorder.getConnectionAcquireTimer().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testPoolMetrics() throws Exception {
+        MockConnectionFactoryProvider.connectionFactory = new MockConnectionFactory();
+        Properties properties = new Properties();
+        properties.setProperty("r2dbc.url", "r2dbc:mock://localhost/test");
+        properties.setProperty("r2dbc.pool.initial-size", "2");
+        properties.setProperty("r2dbc.pool.warm-up.enabled", "true");
+        properties.setProperty("mapper.warm-up.enabled", "false");
+        DefaultReactiveSqlSessionFactory sqlSessionFactory = new DefaultReactiveSqlSessionFactory(newConfiguration(properties));
+        try {
+            SimpleMetricsRecorder metricsRecorder = (SimpleMetricsRecorder) ((DefaultReactiveSqlSession) sqlSessionFactory.openSession()).getMetricsRecorder();
+            assertThat(metricsRecorder.getPoolMetrics()).isNotNull();
+            assertThat(metricsRecorder.getPoolMetrics().allocatedSize()).isEqualTo(2);
+            assertThat(metricsRecorder.getPoolMetrics().acquiredSize()).isZero();
+        } finally {
+            sqlSessionFactory.close();
+        }
+    }
+
+    private Configuration newConfiguration() {
+        return newConfiguration(new Properties());
+    }
+
+    private Configuration newConfiguration(Properties properties) {
+        properties.setProperty("metrics.recorder", SimpleMetricsRecorder.class.getName());
+        XMLConfigBuilder xmlConfigBuilder = new XMLConfigBuilder(this.getClass().getResourceAsStream("/mybatis-config.xml"), null, properties);
+        return xmlConfigBuilder.parse();
+    }
+}
@@ -0,0 +1,40 @@
+package org.apache.ibatis.r2dbc.reflection;
+
+import org.apache.ibatis.MyBatisBaseTestSupport;
+import org.apache.ibatis.r2dbc.demo.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PropertyAccessorFactory test
+ *
+ * @author linux_china
+ */
+public class PropertyAccessorFactoryTest extends MyBatisBaseTestSupport {
+
+    @Test
+    public void testBeanAccessors() {
+        PropertyAccessorFactory accessorFactory = new PropertyAccessorFactory(getConfiguration());
+        User user = new User(1, "linux_china");
+        PropertyGetter nickGetter = accessorFactory.getGetter(User.class, "nick");
+        assertThat(nickGetter.get(user)).isEqualTo("linux_china");
+        assertThat(accessorFactory.getGetter(User.class, "nick")).isSameAs(nickGetter);
+        accessorFactory.getSetter(User.class, "id").set(user, 2);
+        assertThat(user.getId()).isEqualTo(2);
+        assertThat(accessorFactory.getSetterType(User.class, "id")).isEqualTo(Integer.class);
+    }
+
+    @Test
+    public void testMapAndNestedAccessors() {
+        PropertyAccessorFactory accessorFactory = new PropertyAccessorFactory(getConfiguration());
+        Map<String, Object> params = new HashMap<>();
+        params.put("user", new User(1, "linux_china"));
+        assertThat(accessorFactory.getGetter(HashMap.class, "user.nick").get(params)).isEqualTo("linux_china");
+        accessorFactory.getSetter(HashMap.class, "id").set(params, 3);
+        assertThat(params).containsEntry("id", 3);
+    }
+}